@@ -0,0 +1,10 @@
+package com.marketplace.events;
+
+public final class EventSchema {
+
+    public static final int CURRENT_VERSION = 1;
+
+    private EventSchema() {
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.marketplace.events;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.util.JsonFormat;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.charset.StandardCharsets;
+
+// A leading '{' marks a JSON event left from before protobuf; as a protobuf tag it would be an unused group field.
+public class ProtobufDeserializer<T extends Message> implements Deserializer<T> {
+
+    private static final JsonFormat.Parser JSON_PARSER = JsonFormat.parser().ignoringUnknownFields();
+
+    private final T defaultInstance;
+
+    public ProtobufDeserializer(T defaultInstance) {
+        this.defaultInstance = defaultInstance;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+
+        try {
+            if (data.length > 0 && data[0] == '{') {
+                Message.Builder builder = defaultInstance.newBuilderForType();
+                JSON_PARSER.merge(new String(data, StandardCharsets.UTF_8), builder);
+                return (T) builder.build();
+            }
+
+            return (T) defaultInstance.getParserForType().parseFrom(data);
+        } catch (InvalidProtocolBufferException e) {
+            throw new SerializationException("Cannot deserialize " + defaultInstance.getDescriptorForType().getName()
+                    + " from topic " + topic, e);
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.marketplace.serviceauth.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class IdSequenceInitializer implements InitializingBean {
+
+    private static final List<String> TABLES = List.of("users", "sellers", "refresh_tokens", "outbox_events");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${marketplace.id.allocation-size:50}")
+    private int allocationSize;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!DatabasePlatform.isPostgres(jdbcTemplate)) {
+            return;
+        }
+
+        for (String table : TABLES) {
+            String sequence = table + "_seq";
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence + " INCREMENT BY " + allocationSize);
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + allocationSize);
+
+            if (!tableExists(table)) {
+                continue;
+            }
+
+            jdbcTemplate.queryForList("SELECT setval('" + sequence + "', (SELECT MAX(id) FROM " + table + ")) " +
+                    "WHERE (SELECT last_value FROM " + sequence + ") < (SELECT COALESCE(MAX(id), 0) FROM " + table + ")");
+        }
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+
+    @Component
+    static class EntityManagerFactoryDependency extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependency() {
+            super(IdSequenceInitializer.class);
+        }
+
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.marketplace.serviceauth.entity;
 
+import com.marketplace.serviceauth.entity.id.PooledSequence;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -11,7 +12,7 @@ import java.time.Instant;
 public class RefreshToken {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "refresh_tokens_seq")
     private Long id;
 
     @Column(nullable = false, unique = true)
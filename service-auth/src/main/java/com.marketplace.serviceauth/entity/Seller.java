@@ -1,5 +1,6 @@
 package com.marketplace.serviceauth.entity;
 
+import com.marketplace.serviceauth.entity.id.PooledSequence;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -9,7 +10,7 @@ import lombok.Data;
 public class Seller {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "sellers_seq")
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -1,5 +1,6 @@
 package com.marketplace.serviceauth.entity;
 
+import com.marketplace.serviceauth.entity.id.PooledSequence;
 import com.marketplace.serviceauth.enums.Role;
 import jakarta.persistence.*;
 import lombok.Data;
@@ -14,7 +15,7 @@ import java.util.List;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "users_seq")
     private Long id;
 
     @Column(name = "first_name", nullable = false)
@@ -1,7 +1,8 @@
 package com.marketplace.serviceauth.service;
 
 import com.marketplace.serviceauth.dto.CustomUserDetails;
-import com.marketplace.serviceauth.dto.event.UserEvent;
+import com.marketplace.events.EventSchema;
+import com.marketplace.events.Events.UserEvent;
 import com.marketplace.serviceauth.dto.request.LoginUserRequest;
 import com.marketplace.serviceauth.dto.request.RefreshTokenRequest;
 import com.marketplace.serviceauth.dto.request.RegisterUserRequest;
@@ -103,12 +104,18 @@ public class AuthService {
     }
 
     private UserEvent buildUserEvent(User user) {
-        return UserEvent.builder()
-                .id(user.getId())
-                .email(user.getEmail())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .build();
+        UserEvent.Builder event = UserEvent.newBuilder()
+                .setSchemaVersion(EventSchema.CURRENT_VERSION)
+                .setId(user.getId())
+                .setEmail(user.getEmail());
+        if (user.getFirstName() != null) {
+            event.setFirstName(user.getFirstName());
+        }
+        if (user.getLastName() != null) {
+            event.setLastName(user.getLastName());
+        }
+
+        return event.build();
     }
 
     public AuthResponse resendVerificationCode(String email) {
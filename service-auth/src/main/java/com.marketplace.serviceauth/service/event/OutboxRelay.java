@@ -0,0 +1,111 @@
+package com.marketplace.serviceauth.service.event;
+
+import com.marketplace.serviceauth.entity.OutboxEvent;
+import com.marketplace.serviceauth.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class OutboxRelay implements MeterBinder {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long sendTimeoutMillis;
+
+    private final AtomicLong relayedEvents = new AtomicLong();
+
+    @Autowired
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            KafkaTemplate<String, byte[]> kafkaTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${outbox.relay.batch-size:500}") int batchSize,
+            @Value("${outbox.relay.send-timeout-ms:30000}") long sendTimeoutMillis)
+    {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public void relay() {
+        Integer relayed;
+        do {
+            relayed = transactionTemplate.execute(status -> relayBatch());
+        } while (relayed != null && relayed == batchSize);
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findNextBatch(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        CompletableFuture<?>[] sends = batch.stream()
+                .map(event -> kafkaTemplate.send(event.getTopic(), event.getEventKey(), event.getPayload()))
+                .toArray(CompletableFuture[]::new);
+
+        try {
+            CompletableFuture.allOf(sends).get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while relaying outbox events.", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Outbox events were not acknowledged by Kafka.", e);
+        }
+
+        outboxEventRepository.deleteAllInBatch(batch);
+        relayedEvents.addAndGet(batch.size());
+
+        return batch.size();
+    }
+
+    public double getLagSeconds() {
+        return outboxEventRepository.findFirstByOrderByIdAsc()
+                .map(event -> Duration.between(event.getCreatedAt(), Instant.now()).toMillis() / 1000.0)
+                .orElse(0.0);
+    }
+
+    public long getPendingEvents() {
+        return outboxEventRepository.count();
+    }
+
+    public long getRelayedEvents() {
+        return relayedEvents.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("outbox.lag", this, OutboxRelay::getLagSeconds)
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("outbox.pending", this, OutboxRelay::getPendingEvents)
+                .register(registry);
+        FunctionCounter.builder("outbox.relayed", this, OutboxRelay::getRelayedEvents)
+                .register(registry);
+    }
+
+}
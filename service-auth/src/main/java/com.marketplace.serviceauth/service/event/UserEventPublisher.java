@@ -1,18 +1,22 @@
 package com.marketplace.serviceauth.service.event;
 
-import com.marketplace.serviceauth.dto.event.UserEvent;
+import com.marketplace.events.Events.UserEvent;
+import com.marketplace.serviceauth.entity.OutboxEvent;
+import com.marketplace.serviceauth.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class UserEventPublisher {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxEventRepository outboxEventRepository;
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void sendUserToKafka(UserEvent event) {
-        kafkaTemplate.send("users", event.getId().toString(), event);
+        outboxEventRepository.save(new OutboxEvent("users", String.valueOf(event.getId()), event.toByteArray()));
     }
 
 }
@@ -1,7 +1,7 @@
 package com.marketplace.serviceauth.service;
 
+import com.marketplace.events.Events.UserEvent;
 import com.marketplace.serviceauth.dto.CustomUserDetails;
-import com.marketplace.serviceauth.dto.event.UserEvent;
 import com.marketplace.serviceauth.dto.request.LoginUserRequest;
 import com.marketplace.serviceauth.dto.request.RefreshTokenRequest;
 import com.marketplace.serviceauth.dto.request.RegisterUserRequest;
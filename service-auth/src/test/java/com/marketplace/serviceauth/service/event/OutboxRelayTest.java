@@ -0,0 +1,88 @@
+package com.marketplace.serviceauth.service.event;
+
+import com.marketplace.serviceauth.entity.OutboxEvent;
+import com.marketplace.serviceauth.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxEventRepository, kafkaTemplate, transactionManager, 2, 1000);
+    }
+
+    @Test
+    void relay_ShouldSendBatchesUntilOutboxIsDrainedAndThenDeleteThem() {
+        List<OutboxEvent> firstBatch = List.of(event("1"), event("2"));
+        List<OutboxEvent> lastBatch = List.of(event("3"));
+        when(outboxEventRepository.findNextBatch(PageRequest.of(0, 2))).thenReturn(firstBatch, lastBatch);
+        when(kafkaTemplate.send(eq("users"), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        outboxRelay.relay();
+
+        verify(kafkaTemplate, times(3)).send(eq("users"), any(), any());
+        verify(outboxEventRepository).deleteAllInBatch(firstBatch);
+        verify(outboxEventRepository).deleteAllInBatch(lastBatch);
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(3, outboxRelay.getRelayedEvents());
+    }
+
+    @Test
+    void relay_WhenSendFails_ShouldKeepEventsInOutbox() {
+        List<OutboxEvent> batch = List.of(event("1"));
+        when(outboxEventRepository.findNextBatch(PageRequest.of(0, 2))).thenReturn(batch);
+        when(kafkaTemplate.send("users", "1", batch.get(0).getPayload()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Broker unavailable")));
+
+        assertThrows(IllegalStateException.class, outboxRelay::relay);
+
+        verify(outboxEventRepository, never()).deleteAllInBatch(any());
+        verify(transactionManager).rollback(any());
+        assertEquals(0, outboxRelay.getRelayedEvents());
+    }
+
+    @Test
+    void getLagSeconds_ShouldMeasureAgeOfOldestPendingEvent() {
+        OutboxEvent oldest = event("1");
+        oldest.setCreatedAt(Instant.now().minusSeconds(30));
+        when(outboxEventRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(oldest), Optional.empty());
+
+        assertEquals(30, outboxRelay.getLagSeconds(), 1);
+        assertEquals(0, outboxRelay.getLagSeconds());
+    }
+
+    private OutboxEvent event(String key) {
+        return new OutboxEvent("users", key, new byte[]{1, 2, 3});
+    }
+
+}
@@ -1,13 +1,17 @@
 package com.marketplace.serviceauth.service.event;
 
-import com.marketplace.serviceauth.dto.event.UserEvent;
+import com.marketplace.events.EventSchema;
+import com.marketplace.events.Events.UserEvent;
+import com.marketplace.serviceauth.entity.OutboxEvent;
+import com.marketplace.serviceauth.repository.OutboxEventRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.Arrays;
 
 import static org.mockito.Mockito.*;
 
@@ -15,7 +19,7 @@ import static org.mockito.Mockito.*;
 class UserEventPublisherTest {
 
     @Mock
-    private KafkaTemplate<String, Object> kafkaTemplate;
+    private OutboxEventRepository outboxEventRepository;
 
     @InjectMocks
     private UserEventPublisher userEventPublisher;
@@ -24,17 +28,24 @@ class UserEventPublisherTest {
 
     @BeforeEach
     void setUp() {
-        event = UserEvent.createTestEvent(1L, "test@email.com", "John", "Smith");
+        event = UserEvent.newBuilder()
+                .setSchemaVersion(EventSchema.CURRENT_VERSION)
+                .setId(1L)
+                .setEmail("test@email.com")
+                .setFirstName("John")
+                .setLastName("Smith")
+                .build();
     }
 
     @Test
-    void shouldSendUserEventToCorrectTopic() {
-        String expectedTopic = "users";
-        String expectedKey = event.getId().toString();
-
+    void shouldQueueUserEventForCorrectTopic() {
         userEventPublisher.sendUserToKafka(event);
 
-        verify(kafkaTemplate).send(expectedTopic, expectedKey, event);
+        verify(outboxEventRepository).save(argThat((OutboxEvent outboxEvent) ->
+                outboxEvent.getTopic().equals("users")
+                        && outboxEvent.getEventKey().equals("1")
+                        && Arrays.equals(outboxEvent.getPayload(), event.toByteArray())
+                        && outboxEvent.getCreatedAt() != null));
     }
 
 }
@@ -0,0 +1,18 @@
+package com.marketplace.serviceOrder.config;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+final class DatabasePlatform {
+
+    private DatabasePlatform() {
+    }
+
+    static boolean isPostgres(JdbcTemplate jdbcTemplate) {
+        String databaseName = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+
+        return "PostgreSQL".equalsIgnoreCase(databaseName);
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.marketplace.serviceOrder.config;
 
-import com.marketplace.serviceOrder.dto.event.UserEvent;
+import com.marketplace.events.Events.UserEvent;
+import com.marketplace.events.ProtobufDeserializer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,6 +10,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -25,22 +27,25 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.auto-offset-reset}")
     private String autoOffsetReset;
 
+    @Value("${spring.kafka.listener.concurrency:1}")
+    private int concurrency;
+
     @Bean
-    public ConsumerFactory<String, UserEvent> stringConsumerFactory() {
+    public ConsumerFactory<String, UserEvent> userEventConsumerFactory() {
         Map<String, Object> configProperties = new HashMap<>();
         configProperties.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProperties.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-        configProperties.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProperties.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         configProperties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
 
-        return new DefaultKafkaConsumerFactory<>(configProperties);
+        return new DefaultKafkaConsumerFactory<>(configProperties, new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new ProtobufDeserializer<>(UserEvent.getDefaultInstance())));
     }
 
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, UserEvent> kafkaListenerContainerFactory() {
         var factory = new ConcurrentKafkaListenerContainerFactory<String, UserEvent>();
-        factory.setConsumerFactory(stringConsumerFactory());
+        factory.setConsumerFactory(userEventConsumerFactory());
+        factory.setConcurrency(concurrency);
         return factory;
     }
 
@@ -0,0 +1,43 @@
+package com.marketplace.serviceOrder.config;
+
+import com.marketplace.serviceOrder.service.grpc.GrpcChannelPool;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+@Configuration
+public class ProductGrpcClientConfig {
+
+    @Value("${product.grpc.target:${grpc.client.service-product.address:dns:///localhost:9090}}")
+    private String target;
+
+    @Value("${product.grpc.channel-pool-size:4}")
+    private int channelPoolSize;
+
+    @Value("${product.grpc.plaintext:true}")
+    private boolean plaintext;
+
+    @Bean(destroyMethod = "shutdown")
+    public GrpcChannelPool productChannelPool() {
+        List<ManagedChannel> channels = IntStream.range(0, channelPoolSize)
+                .mapToObj(i -> createChannel())
+                .toList();
+
+        return new GrpcChannelPool(channels);
+    }
+
+    private ManagedChannel createChannel() {
+        ManagedChannelBuilder<?> builder = ManagedChannelBuilder.forTarget(target);
+        if (plaintext) {
+            builder.usePlaintext();
+        }
+
+        return builder.build();
+    }
+
+}
@@ -1,7 +1,11 @@
 package com.marketplace.serviceOrder.controller;
 
 import com.marketplace.serviceOrder.dto.request.AddItemRequest;
+import com.marketplace.serviceOrder.dto.request.BasketBatchRequest;
+import com.marketplace.serviceOrder.dto.request.BasketOperationRequest;
 import com.marketplace.serviceOrder.dto.response.BasketItemResponse;
+import com.marketplace.serviceOrder.dto.response.BasketResponse;
+import com.marketplace.serviceOrder.enums.BasketOperationType;
 import com.marketplace.serviceOrder.exception.HttpServletRequestException;
 import com.marketplace.serviceOrder.service.BasketItemService;
 import com.marketplace.serviceOrder.service.jwt.JwtService;
@@ -14,6 +18,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/basket-item")
 @RequiredArgsConstructor
@@ -42,4 +48,66 @@ public class BasketItemController {
         }
     }
 
+    @PostMapping("/remove")
+    public ResponseEntity<?> removeItem(
+            HttpServletRequest httpServletRequest,
+            @RequestBody BasketOperationRequest request)
+    {
+        try {
+            Long userId = jwtService.extractUserId(httpServletRequest);
+
+            BasketResponse response = basketItemService.applyOperations(userId, List.of(
+                    new BasketOperationRequest(BasketOperationType.REMOVE, request.getProductId(), 0)));
+
+            return ResponseEntity.ok(response);
+        } catch (HttpServletRequestException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/set-count")
+    public ResponseEntity<?> setItemCount(
+            HttpServletRequest httpServletRequest,
+            @RequestBody BasketOperationRequest request)
+    {
+        try {
+            Long userId = jwtService.extractUserId(httpServletRequest);
+
+            BasketResponse response = basketItemService.applyOperations(userId, List.of(
+                    new BasketOperationRequest(BasketOperationType.SET_COUNT, request.getProductId(), request.getCount())));
+
+            return ResponseEntity.ok(response);
+        } catch (HttpServletRequestException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyOperations(
+            HttpServletRequest httpServletRequest,
+            @RequestBody BasketBatchRequest request)
+    {
+        try {
+            Long userId = jwtService.extractUserId(httpServletRequest);
+
+            BasketResponse response = basketItemService.applyOperations(userId, request.getOperations());
+
+            return ResponseEntity.ok(response);
+        } catch (HttpServletRequestException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(e.getMessage());
+        }
+    }
+
 }
@@ -0,0 +1,12 @@
+package com.marketplace.serviceOrder.dto.request;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BasketBatchRequest {
+
+    private List<BasketOperationRequest> operations;
+
+}
@@ -0,0 +1,17 @@
+package com.marketplace.serviceOrder.dto.request;
+
+import com.marketplace.serviceOrder.enums.BasketOperationType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BasketOperationRequest {
+
+    private BasketOperationType type;
+    private Long productId;
+    private Integer count;
+
+}
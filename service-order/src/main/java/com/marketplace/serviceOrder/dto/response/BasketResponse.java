@@ -0,0 +1,16 @@
+package com.marketplace.serviceOrder.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BasketResponse {
+
+    private Long basketId;
+    private Integer totalPrice;
+    private List<BasketItemResponse> items;
+
+}
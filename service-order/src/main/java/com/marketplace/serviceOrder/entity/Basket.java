@@ -1,5 +1,6 @@
 package com.marketplace.serviceOrder.entity;
 
+import com.marketplace.serviceOrder.entity.id.PooledSequence;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -12,13 +13,14 @@ import java.util.List;
 public class Basket {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "baskets_seq")
     private Long id;
 
-    @Column(name = "user_id", nullable = false)
+    @Column(name = "user_id", nullable = false, unique = true)
     private Long userId;
 
-    @Column(name = "total_price")
+    // Changed only by the atomic updates in BasketRepository, never by dirty checking.
+    @Column(name = "total_price", updatable = false)
     private Integer totalPrice;
 
     @OneToMany(mappedBy = "basket", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -1,5 +1,6 @@
 package com.marketplace.serviceOrder.entity;
 
+import com.marketplace.serviceOrder.entity.id.PooledSequence;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -9,7 +10,7 @@ import lombok.Data;
 public class BasketItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "basket_items_seq")
     private Long id;
 
     @Column(name = "product_id", nullable = false)
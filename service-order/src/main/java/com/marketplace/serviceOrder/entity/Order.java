@@ -1,5 +1,6 @@
 package com.marketplace.serviceOrder.entity;
 
+import com.marketplace.serviceOrder.entity.id.PooledSequence;
 import com.marketplace.serviceOrder.enums.OrderStatus;
 import jakarta.persistence.*;
 import lombok.Data;
@@ -13,7 +14,7 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "orders_seq")
     private Long id;
 
     @Column(nullable = false)
@@ -1,5 +1,6 @@
 package com.marketplace.serviceOrder.entity;
 
+import com.marketplace.serviceOrder.entity.id.PooledSequence;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -8,8 +9,9 @@ import lombok.Data;
 @Data
 public class OrderItem {
 
+    // Sequence ids let Hibernate batch the inserts of a whole order; allocationSize matches the sequence increment.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "order_items_seq")
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,9 @@
+package com.marketplace.serviceOrder.enums;
+
+public enum BasketOperationType {
+
+    ADD,
+    REMOVE,
+    SET_COUNT
+
+}
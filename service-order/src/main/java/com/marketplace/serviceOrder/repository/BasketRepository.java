@@ -1,14 +1,53 @@
 package com.marketplace.serviceOrder.repository;
 
 import com.marketplace.serviceOrder.entity.Basket;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BasketRepository extends JpaRepository<Basket, Long> {
 
+    String ITEMS_TOTAL_PRICE = "(SELECT COALESCE(SUM(i.price * i.count), 0) FROM basket_items i WHERE i.basket_id = b.id)";
+
     Optional<Basket> findByUserId(Long userId);
+    boolean existsByUserId(Long userId);
+
+    @Query("SELECT b FROM Basket b LEFT JOIN FETCH b.items WHERE b.userId = :userId")
+    Optional<Basket> findWithItemsByUserId(@Param("userId") Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Basket b WHERE b.userId = :userId")
+    Optional<Basket> findForUpdateByUserId(@Param("userId") Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Basket b WHERE b.id = :id")
+    Optional<Basket> findForUpdateById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Basket b SET b.totalPrice = COALESCE(b.totalPrice, 0) + :delta WHERE b.id = :basketId")
+    int addToTotalPrice(@Param("basketId") Long basketId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE Basket b SET b.totalPrice = :totalPrice WHERE b.id = :basketId")
+    int updateTotalPrice(@Param("basketId") Long basketId, @Param("totalPrice") int totalPrice);
+
+    @Query(value = "SELECT b.id FROM baskets b WHERE b.total_price IS DISTINCT FROM " + ITEMS_TOTAL_PRICE +
+            " FOR UPDATE",
+            nativeQuery = true)
+    List<Long> findDriftedIdsForUpdate();
+
+    @Modifying
+    @Query(value = "UPDATE baskets b SET total_price = " + ITEMS_TOTAL_PRICE + " WHERE b.id IN (:basketIds)",
+            nativeQuery = true)
+    int reconcileTotalPrices(@Param("basketIds") Collection<Long> basketIds);
 
 }
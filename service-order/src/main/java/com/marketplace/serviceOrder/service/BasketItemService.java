@@ -3,16 +3,28 @@ package com.marketplace.serviceOrder.service;
 import com.marketplace.serviceOrder.dto.grpc.BasketItemValidationResult;
 import com.marketplace.serviceOrder.dto.grpc.BasketValidationResult;
 import com.marketplace.serviceOrder.dto.request.AddItemRequest;
+import com.marketplace.serviceOrder.dto.request.BasketOperationRequest;
 import com.marketplace.serviceOrder.dto.response.BasketItemResponse;
+import com.marketplace.serviceOrder.dto.response.BasketResponse;
 import com.marketplace.serviceOrder.entity.Basket;
 import com.marketplace.serviceOrder.entity.BasketItem;
+import com.marketplace.serviceOrder.enums.BasketOperationType;
+import com.marketplace.serviceOrder.exception.BasketItemException;
 import com.marketplace.serviceOrder.exception.ProductException;
 import com.marketplace.serviceOrder.repository.BasketItemRepository;
 import com.marketplace.serviceOrder.service.grpc.ProductGrpcClient;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -21,75 +33,135 @@ public class BasketItemService {
     private final BasketItemRepository basketItemRepository;
     private final BasketService basketService;
     private final ProductGrpcClient productGrpcClient;
+    private final Optional<HotBasketService> hotBasketService;
+
+    @Value("${order.basket.max-batch-operations:200}")
+    private int maxBatchOperations;
 
     public BasketItemResponse addItem(Long userId, AddItemRequest request) {
-        boolean productExist = productGrpcClient.validateProduct(request.getProductId());
-        if (!productExist) {
-            throw new ProductException("Product not found.");
+        CompletableFuture<Boolean> productValidation = productGrpcClient.validateProductAsync(request.getProductId());
+
+        if (hotBasketService.isPresent()) {
+            requireProduct(productValidation);
+            return hotBasketService.get().addItem(userId, request);
         }
 
         Basket basket = basketService.findBasketByUserId(userId);
 
-        BasketItem basketItem = basketItemRepository.findByBasketAndProductId(basket, request.getProductId())
-                .orElseGet(() -> createBasketItem(basket, request));
+        requireProduct(productValidation);
 
-        int newCount = basketItem.getCount() + request.getCount();
-        basketItem.setCount(newCount);
+        return basketService.addItem(basket.getId(), request);
+    }
 
-        basketItemRepository.save(basketItem);
+    public BasketResponse applyOperations(Long userId, List<BasketOperationRequest> operations) {
+        validateOperations(operations);
 
-        basketService.updateBasketTotalPrice(basket);
+        Map<Long, Integer> currentPrices = findCurrentPrices(operations);
 
-        return buildBasketItemResponse(basketItem);
+        if (hotBasketService.isPresent()) {
+            return hotBasketService.get().applyOperations(userId, operations, currentPrices);
+        }
+
+        return basketService.applyOperations(userId, operations, currentPrices);
     }
 
-    public void updateBasketItemPrices(List<BasketItem> items, BasketValidationResult validationResult) {
-        List<BasketItem> updatedItems = items.stream().map(item -> {
-            Long productId = item.getProductId();
+    // Returns the change of the basket total.
+    public int updateBasketItemPrices(List<BasketItem> items, BasketValidationResult validationResult) {
+        int totalPriceDelta = 0;
+        List<BasketItem> updatedItems = new ArrayList<>();
 
-            BasketItemValidationResult itemValidationResult = validationResult.getResultForItem(productId);
+        for (BasketItem item : items) {
+            int currentPrice = validationResult.getResultForItem(item.getProductId()).getCurrentPrice();
 
-            if (!item.getPrice().equals(itemValidationResult.getCurrentPrice())) {
-                item.setPrice(itemValidationResult.getCurrentPrice());
+            if (item.getPrice() != currentPrice) {
+                totalPriceDelta += (currentPrice - item.getPrice()) * item.getCount();
+                item.setPrice(currentPrice);
+                updatedItems.add(item);
             }
-
-            return item;
-        })
-        .toList();
+        }
 
         basketItemRepository.saveAll(updatedItems);
+
+        return totalPriceDelta;
     }
 
-    public void deleteFromBasketNotExistItems(List<BasketItem> items, BasketValidationResult validationResult) {
-        for (BasketItem item : items) {
-            BasketItemValidationResult result = validationResult.getResultForItem(item.getProductId());
+    // Returns the change of the basket total.
+    public int deleteFromBasketNotExistItems(List<BasketItem> items, BasketValidationResult validationResult) {
+        List<BasketItem> notExistItems = items.stream()
+                .filter(item -> {
+                    BasketItemValidationResult result = validationResult.getResultForItem(item.getProductId());
+                    return result != null && !result.isProductExist();
+                })
+                .toList();
+
+        items.removeAll(notExistItems);
+        basketItemRepository.deleteAll(notExistItems);
+
+        return -notExistItems.stream()
+                .mapToInt(item -> item.getPrice() * item.getCount())
+                .sum();
+    }
+
+    private void validateOperations(List<BasketOperationRequest> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new BasketItemException("No basket operations.");
+        }
 
-            if (result == null) {
-                basketItemRepository.delete(item);
-                items.remove(item);
+        if (operations.size() > maxBatchOperations) {
+            throw new BasketItemException("At most " + maxBatchOperations + " basket operations are allowed.");
+        }
+
+        for (BasketOperationRequest operation : operations) {
+            if (operation.getType() == null || operation.getProductId() == null) {
+                throw new BasketItemException("Operation type and product are required.");
+            }
+
+            if (operation.getType() == BasketOperationType.ADD
+                    && (operation.getCount() == null || operation.getCount() <= 0)) {
+                throw new BasketItemException("Added count must be positive.");
+            }
+
+            if (operation.getType() == BasketOperationType.SET_COUNT
+                    && (operation.getCount() == null || operation.getCount() < 0)) {
+                throw new BasketItemException("Count must not be negative.");
             }
         }
     }
 
-    private BasketItem createBasketItem(Basket basket, AddItemRequest request) {
-        BasketItem item = new BasketItem();
-        item.setProductId(request.getProductId());
-        item.setCount(request.getCount());
-        item.setPrice(request.getPrice());
-        item.setBasket(basket);
+    private Map<Long, Integer> findCurrentPrices(List<BasketOperationRequest> operations) {
+        Map<Long, Integer> requestedCounts = operations.stream()
+                .filter(operation -> operation.getType() != BasketOperationType.REMOVE && operation.getCount() > 0)
+                .collect(Collectors.toMap(
+                        BasketOperationRequest::getProductId,
+                        BasketOperationRequest::getCount,
+                        Integer::sum,
+                        LinkedHashMap::new
+                ));
+
+        if (requestedCounts.isEmpty()) {
+            return Map.of();
+        }
 
-        basket.getItems().add(item);
+        BasketValidationResult validationResult = productGrpcClient.checkBasketProducts(requestedCounts);
 
-        return item;
+        Map<Long, Integer> currentPrices = new HashMap<>();
+        requestedCounts.keySet().forEach(productId -> {
+            BasketItemValidationResult result = validationResult.getResultForItem(productId);
+
+            if (result == null || !result.isProductExist()) {
+                throw new ProductException("Product " + productId + " not found.");
+            }
+
+            currentPrices.put(productId, result.getCurrentPrice());
+        });
+
+        return currentPrices;
     }
 
-    private BasketItemResponse buildBasketItemResponse(BasketItem item) {
-        return BasketItemResponse.builder()
-                .itemId(item.getId())
-                .basketId(item.getBasket().getId())
-                .productId(item.getProductId())
-                .count(item.getCount())
-                .build();
+    private void requireProduct(CompletableFuture<Boolean> productValidation) {
+        if (!productGrpcClient.await(productValidation)) {
+            throw new ProductException("Product not found.");
+        }
     }
 
 }
@@ -1,38 +1,56 @@
 package com.marketplace.serviceOrder.service;
 
 import com.marketplace.serviceOrder.dto.grpc.BasketValidationResult;
+import com.marketplace.serviceOrder.dto.request.AddItemRequest;
+import com.marketplace.serviceOrder.dto.request.BasketOperationRequest;
+import com.marketplace.serviceOrder.dto.response.BasketItemResponse;
+import com.marketplace.serviceOrder.dto.response.BasketResponse;
 import com.marketplace.serviceOrder.entity.Basket;
 import com.marketplace.serviceOrder.entity.BasketItem;
 import com.marketplace.serviceOrder.entity.OrderItem;
 import com.marketplace.serviceOrder.exception.BasketException;
 import com.marketplace.serviceOrder.exception.OrderItemException;
+import com.marketplace.serviceOrder.exception.ProductException;
+import com.marketplace.serviceOrder.repository.BasketItemRepository;
 import com.marketplace.serviceOrder.repository.BasketRepository;
 import com.marketplace.serviceOrder.service.grpc.ProductGrpcClient;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class BasketService {
 
     private final BasketItemService basketItemService;
     private final BasketRepository basketRepository;
+    private final BasketItemRepository basketItemRepository;
     private final ProductGrpcClient productGrpcClient;
 
     public BasketService(@Lazy BasketItemService basketItemService, BasketRepository basketRepository,
-                         ProductGrpcClient productGrpcClient) {
+                         BasketItemRepository basketItemRepository, ProductGrpcClient productGrpcClient) {
         this.basketItemService = basketItemService;
         this.basketRepository = basketRepository;
+        this.basketItemRepository = basketItemRepository;
         this.productGrpcClient = productGrpcClient;
     }
 
     @Transactional
     public void createBasket(Long userId) {
+        // User events are delivered at least once.
+        if (basketRepository.existsByUserId(userId)) {
+            return;
+        }
+
         Basket basket = new Basket();
         basket.setUserId(userId);
+        basket.setTotalPrice(0);
 
         basketRepository.save(basket);
     }
@@ -42,19 +60,102 @@ public class BasketService {
                 .orElseThrow(() -> new BasketException("Basket not found."));
     }
 
-    public void updateBasketTotalPrice(Basket basket) {
-        List<BasketItem> items = basket.getItems();
+    // The basket row stays locked until commit, so concurrent changes of the same basket apply one after another.
+    public Basket findBasketForUpdateByUserId(Long userId) {
+        return basketRepository.findForUpdateByUserId(userId)
+                .orElseThrow(() -> new BasketException("Basket not found."));
+    }
 
-        int totalPrice = items.stream()
-                .mapToInt(item -> {
-                    int price = item.getPrice() != null ? item.getPrice() : 0;
-                    int count = item.getCount() != null ? item.getCount() : 0;
-                    return price * count;
-                })
-                .sum();
+    @Transactional
+    public BasketItemResponse addItem(Long basketId, AddItemRequest request) {
+        Basket basket = basketRepository.findForUpdateById(basketId)
+                .orElseThrow(() -> new BasketException("Basket not found."));
 
-        basket.setTotalPrice(totalPrice);
-        basketRepository.save(basket);
+        BasketItem basketItem = basketItemRepository.findByBasketAndProductId(basket, request.getProductId())
+                .orElseGet(() -> createBasketItem(basket, request));
+
+        int newCount = basketItem.getCount() + request.getCount();
+        basketItem.setCount(newCount);
+
+        basketItemRepository.save(basketItem);
+
+        addToTotalPrice(basket, basketItem.getPrice() * request.getCount());
+
+        return buildBasketItemResponse(basketItem);
+    }
+
+    @Transactional
+    public BasketResponse applyOperations(Long userId, List<BasketOperationRequest> operations,
+                                          Map<Long, Integer> currentPrices) {
+        Basket basket = findBasketForUpdateByUserId(userId);
+
+        Map<Long, BasketItem> items = basket.getItems().stream()
+                .collect(Collectors.toMap(BasketItem::getProductId, Function.identity(), (first, second) -> first));
+        List<BasketItem> newItems = new ArrayList<>();
+        int totalPriceDelta = 0;
+
+        for (BasketOperationRequest operation : operations) {
+            BasketItem item = items.get(operation.getProductId());
+            int oldCount = item != null ? item.getCount() : 0;
+            int newCount = switch (operation.getType()) {
+                case ADD -> oldCount + operation.getCount();
+                case REMOVE -> 0;
+                case SET_COUNT -> operation.getCount();
+            };
+
+            if (newCount == oldCount) {
+                continue;
+            }
+
+            if (newCount == 0) {
+                totalPriceDelta -= oldCount * item.getPrice();
+                items.remove(operation.getProductId());
+                basket.getItems().remove(item);
+                newItems.remove(item);
+                continue;
+            }
+
+            if (item == null) {
+                item = new BasketItem();
+                item.setProductId(operation.getProductId());
+                item.setPrice(currentPrices.get(operation.getProductId()));
+                item.setBasket(basket);
+                items.put(operation.getProductId(), item);
+                basket.getItems().add(item);
+                newItems.add(item);
+            }
+
+            totalPriceDelta += (newCount - oldCount) * item.getPrice();
+            item.setCount(newCount);
+        }
+
+        basketItemRepository.saveAll(newItems);
+        addToTotalPrice(basket, totalPriceDelta);
+
+        return buildBasketResponse(basket);
+    }
+
+    public void addToTotalPrice(Basket basket, int delta) {
+        if (delta == 0) {
+            return;
+        }
+
+        basketRepository.addToTotalPrice(basket.getId(), delta);
+
+        int totalPrice = basket.getTotalPrice() != null ? basket.getTotalPrice() : 0;
+        basket.setTotalPrice(totalPrice + delta);
+    }
+
+    // Drifted rows are locked first, so the recount sees the items of any change that committed meanwhile.
+    @Transactional
+    @Scheduled(fixedDelayString = "${order.basket.reconcile-interval-ms:3600000}")
+    public int reconcileTotalPrices() {
+        List<Long> basketIds = basketRepository.findDriftedIdsForUpdate();
+        if (basketIds.isEmpty()) {
+            return 0;
+        }
+
+        return basketRepository.reconcileTotalPrices(basketIds);
     }
 
     public BasketValidationResult validateBasket(Basket basket) {
@@ -66,20 +167,65 @@ public class BasketService {
 
         BasketValidationResult validationResult = productGrpcClient.validateBasketItems(items);
 
+        items.stream()
+                .filter(item -> validationResult.getResultForItem(item.getProductId()) == null)
+                .findAny()
+                .ifPresent(item -> {
+                    throw new ProductException("Product " + item.getProductId() + " was not validated.");
+                });
+
+        int totalPriceDelta = 0;
+
         if (validationResult.hasNotExistItems()) {
-            basketItemService.deleteFromBasketNotExistItems(items, validationResult);
+            totalPriceDelta += basketItemService.deleteFromBasketNotExistItems(items, validationResult);
         }
 
         if (validationResult.hasNotCountSufficientItems()) {
             throw new OrderItemException("There is not enough product.");
         }
 
-        basketItemService.updateBasketItemPrices(items, validationResult);
-        updateBasketTotalPrice(basket);
+        totalPriceDelta += basketItemService.updateBasketItemPrices(items, validationResult);
+        addToTotalPrice(basket, totalPriceDelta);
 
         return validationResult;
     }
 
+    private BasketItem createBasketItem(Basket basket, AddItemRequest request) {
+        BasketItem item = new BasketItem();
+        item.setProductId(request.getProductId());
+        item.setCount(0);
+        item.setPrice(request.getPrice());
+        item.setBasket(basket);
+
+        return item;
+    }
+
+    private BasketItemResponse buildBasketItemResponse(BasketItem item) {
+        return BasketItemResponse.builder()
+                .itemId(item.getId())
+                .basketId(item.getBasket().getId())
+                .productId(item.getProductId())
+                .count(item.getCount())
+                .build();
+    }
+
+    private BasketResponse buildBasketResponse(Basket basket) {
+        List<BasketItemResponse> items = basket.getItems().stream()
+                .map(item -> BasketItemResponse.builder()
+                        .itemId(item.getId())
+                        .basketId(basket.getId())
+                        .productId(item.getProductId())
+                        .count(item.getCount())
+                        .build())
+                .toList();
+
+        return BasketResponse.builder()
+                .basketId(basket.getId())
+                .totalPrice(basket.getTotalPrice())
+                .items(items)
+                .build();
+    }
+
     public void CancelBasketReservation(List<OrderItem> items) {
         productGrpcClient.cancelBasketReservation(items);
     }
@@ -0,0 +1,178 @@
+package com.marketplace.serviceOrder.service;
+
+import com.marketplace.serviceOrder.dto.request.AddItemRequest;
+import com.marketplace.serviceOrder.dto.request.BasketOperationRequest;
+import com.marketplace.serviceOrder.dto.response.BasketItemResponse;
+import com.marketplace.serviceOrder.dto.response.BasketResponse;
+import com.marketplace.serviceOrder.entity.Basket;
+import com.marketplace.serviceOrder.entity.BasketItem;
+import com.marketplace.serviceOrder.exception.BasketException;
+import com.marketplace.serviceOrder.exception.BasketItemException;
+import com.marketplace.serviceOrder.repository.BasketRepository;
+import com.marketplace.serviceOrder.service.cache.HotBasket;
+import com.marketplace.serviceOrder.service.cache.HotBasketStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@ConditionalOnProperty(name = "order.basket.store", havingValue = "redis")
+public class HotBasketService {
+
+    private final HotBasketStore hotBasketStore;
+    private final BasketRepository basketRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long idleMillis;
+    private final int evictionBatchSize;
+
+    @Autowired
+    public HotBasketService(
+            HotBasketStore hotBasketStore,
+            BasketRepository basketRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${order.basket.redis.idle-ms:1800000}") long idleMillis,
+            @Value("${order.basket.redis.eviction-batch-size:100}") int evictionBatchSize)
+    {
+        this.hotBasketStore = hotBasketStore;
+        this.basketRepository = basketRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idleMillis = idleMillis;
+        this.evictionBatchSize = evictionBatchSize;
+    }
+
+    public BasketItemResponse addItem(Long userId, AddItemRequest request) {
+        if (request.getCount() == null || request.getCount() <= 0 || request.getPrice() == null) {
+            throw new BasketItemException("Count and price are required.");
+        }
+
+        Optional<BasketItemResponse> response = addLoadedItem(userId, request);
+
+        if (response.isEmpty()) {
+            loadBasket(userId);
+            response = addLoadedItem(userId, request);
+        }
+
+        return response.orElseThrow(() -> new BasketException("Basket is not available."));
+    }
+
+    public BasketResponse applyOperations(Long userId, List<BasketOperationRequest> operations,
+                                          Map<Long, Integer> currentPrices) {
+        if (!hotBasketStore.applyOperations(userId, operations, currentPrices)) {
+            loadBasket(userId);
+
+            if (!hotBasketStore.applyOperations(userId, operations, currentPrices)) {
+                throw new BasketException("Basket is not available.");
+            }
+        }
+
+        return hotBasketStore.snapshot(userId)
+                .map(this::buildBasketResponse)
+                .orElseThrow(() -> new BasketException("Basket is not available."));
+    }
+
+    // The Redis basket is dropped after commit unless it changed in the meantime.
+    @Transactional
+    public void persist(Long userId) {
+        Optional<Basket> basket = basketRepository.findForUpdateByUserId(userId);
+        Optional<HotBasket> hotBasket = hotBasketStore.snapshot(userId);
+
+        if (hotBasket.isEmpty()) {
+            return;
+        }
+
+        long version = hotBasket.get().version();
+
+        if (basket.isPresent()) {
+            applyHotBasket(basket.get(), hotBasket.get());
+            basketRepository.save(basket.get());
+            basketRepository.updateTotalPrice(basket.get().getId(), hotBasket.get().totalPrice());
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    hotBasketStore.evictIfUnchanged(userId, version);
+                }
+            });
+        } else {
+            hotBasketStore.evictIfUnchanged(userId, version);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.basket.redis.eviction-interval-ms:60000}")
+    public void evictIdleBaskets() {
+        long idleSince = System.currentTimeMillis() - idleMillis;
+
+        for (Long userId : hotBasketStore.findIdleUserIds(idleSince, evictionBatchSize)) {
+            transactionTemplate.executeWithoutResult(status -> persist(userId));
+        }
+    }
+
+    private void loadBasket(Long userId) {
+        Basket basket = basketRepository.findWithItemsByUserId(userId)
+                .orElseThrow(() -> new BasketException("Basket not found."));
+
+        hotBasketStore.load(userId, basket);
+    }
+
+    private Optional<BasketItemResponse> addLoadedItem(Long userId, AddItemRequest request) {
+        return hotBasketStore.addItem(userId, request.getProductId(), request.getCount(), request.getPrice());
+    }
+
+    private BasketResponse buildBasketResponse(HotBasket hotBasket) {
+        List<BasketItemResponse> items = hotBasket.items().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> BasketItemResponse.builder()
+                        .basketId(hotBasket.basketId())
+                        .productId(entry.getKey())
+                        .count(entry.getValue().count())
+                        .build())
+                .toList();
+
+        return BasketResponse.builder()
+                .basketId(hotBasket.basketId())
+                .totalPrice(hotBasket.totalPrice())
+                .items(items)
+                .build();
+    }
+
+    private void applyHotBasket(Basket basket, HotBasket hotBasket) {
+        Map<Long, HotBasket.Item> hotItems = hotBasket.items();
+
+        basket.getItems().removeIf(item -> !hotItems.containsKey(item.getProductId()));
+
+        Map<Long, BasketItem> items = basket.getItems().stream()
+                .collect(Collectors.toMap(BasketItem::getProductId, Function.identity()));
+
+        hotItems.forEach((productId, hotItem) -> {
+            BasketItem item = items.get(productId);
+
+            if (item == null) {
+                item = new BasketItem();
+                item.setProductId(productId);
+                item.setBasket(basket);
+                basket.getItems().add(item);
+            }
+
+            item.setCount(hotItem.count());
+            item.setPrice(hotItem.price());
+        });
+
+        basket.setTotalPrice(hotBasket.totalPrice());
+    }
+
+}
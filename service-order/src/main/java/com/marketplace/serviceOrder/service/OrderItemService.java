@@ -1,6 +1,7 @@
 package com.marketplace.serviceOrder.service;
 
-import com.marketplace.serviceOrder.dto.event.ProductEvent;
+import com.marketplace.events.EventSchema;
+import com.marketplace.events.Events.ProductEvent;
 import com.marketplace.serviceOrder.dto.request.SetOrderItemRatingRequest;
 import com.marketplace.serviceOrder.dto.response.OrderItemResponse;
 import com.marketplace.serviceOrder.entity.Basket;
@@ -14,7 +15,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,9 +28,11 @@ public class OrderItemService {
     private final ProductEventPublisher productEventPublisher;
 
     public List<OrderItem> createOrderItemsFromBasket(Basket basket, Order order) {
-        return basket.getItems().stream()
+        List<OrderItem> orderItems = basket.getItems().stream()
                 .map(basketItem -> createOrderItem(basketItem, order))
                 .collect(Collectors.toList());
+
+        return orderItemRepository.saveAll(orderItems);
     }
 
     private OrderItem createOrderItem(BasketItem basketItem, Order order) {
@@ -37,7 +42,7 @@ public class OrderItemService {
         orderItem.setPrice(basketItem.getPrice());
         orderItem.setCount(basketItem.getCount());
 
-        return orderItemRepository.save(orderItem);
+        return orderItem;
     }
 
     public OrderItemResponse createOrderItemResponse(OrderItem orderItem) {
@@ -68,9 +73,15 @@ public class OrderItemService {
             throw new OrderItemException("Illegal order item rating.");
         }
 
-        ProductEvent event = ProductEvent.builder()
-                .id(orderItem.getProductId())
-                .rating(rating)
+        // Derived from the order item, so a re-published rating carries the same id and is deduplicated downstream.
+        String eventId = UUID.nameUUIDFromBytes(("order-item-rating:" + orderItem.getId())
+                .getBytes(StandardCharsets.UTF_8)).toString();
+
+        ProductEvent event = ProductEvent.newBuilder()
+                .setSchemaVersion(EventSchema.CURRENT_VERSION)
+                .setEventId(eventId)
+                .setId(orderItem.getProductId())
+                .setRating(rating)
                 .build();
 
         orderItem.setRating(rating);
@@ -15,6 +15,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -25,10 +26,13 @@ public class OrderService {
     private final OrderItemService orderItemService;
     private final PaymentGrpcClient paymentGrpcClient;
     private final OrderStatusService orderStatusService;
+    private final Optional<HotBasketService> hotBasketService;
 
     @Transactional
     public OrderResponse createOrder(Long userId, String address) {
-        Basket basket = basketService.findBasketByUserId(userId);
+        hotBasketService.ifPresent(service -> service.persist(userId));
+
+        Basket basket = basketService.findBasketForUpdateByUserId(userId);
 
         if (basket == null || basket.getItems().isEmpty()) {
             throw new BasketException("Cannot create order from empty basket.");
@@ -75,7 +79,9 @@ public class OrderService {
         Order order = new Order();
         order.setUserId(basket.getUserId());
         order.setAddress(address);
-        order.setTotalPrice(basket.getTotalPrice());
+        order.setTotalPrice(basket.getItems().stream()
+                .mapToInt(item -> item.getPrice() * item.getCount())
+                .sum());
         orderStatusService.transitionTo(order, OrderStatus.PENDING);
 
         orderRepository.save(order);
@@ -0,0 +1,10 @@
+package com.marketplace.serviceOrder.service.cache;
+
+import java.util.Map;
+
+public record HotBasket(Long basketId, long version, int totalPrice, Map<Long, Item> items) {
+
+    public record Item(int count, int price) {
+    }
+
+}
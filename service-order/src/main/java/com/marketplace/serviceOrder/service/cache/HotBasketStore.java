@@ -0,0 +1,211 @@
+package com.marketplace.serviceOrder.service.cache;
+
+import com.marketplace.serviceOrder.dto.request.BasketOperationRequest;
+import com.marketplace.serviceOrder.dto.response.BasketItemResponse;
+import com.marketplace.serviceOrder.entity.Basket;
+import com.marketplace.serviceOrder.entity.BasketItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Component
+@ConditionalOnProperty(name = "order.basket.store", havingValue = "redis")
+@RequiredArgsConstructor
+public class HotBasketStore {
+
+    private static final String KEY_PREFIX = "basket:";
+    private static final String ACTIVE_KEY = "baskets:active";
+
+    private static final String BASKET_ID = "id";
+    private static final String VERSION = "version";
+    private static final String TOTAL_PRICE = "total";
+    private static final String COUNT_PREFIX = "c:";
+    private static final String PRICE_PREFIX = "p:";
+
+    // Returns nil when the basket is not loaded; an item keeps the price it was first added with.
+    private static final RedisScript<List> ADD_ITEM = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return nil
+            end
+            redis.call('HSETNX', KEYS[1], 'p:' .. ARGV[1], ARGV[3])
+            local price = tonumber(redis.call('HGET', KEYS[1], 'p:' .. ARGV[1]))
+            local count = redis.call('HINCRBY', KEYS[1], 'c:' .. ARGV[1], ARGV[2])
+            redis.call('HINCRBY', KEYS[1], 'total', price * tonumber(ARGV[2]))
+            redis.call('HINCRBY', KEYS[1], 'version', 1)
+            redis.call('ZADD', KEYS[2], ARGV[4], ARGV[5])
+            return {count, tonumber(redis.call('HGET', KEYS[1], 'id'))}
+            """, List.class);
+
+    // Leaves a basket that is already loaded alone, so concurrent loads cannot overwrite newer changes.
+    private static final RedisScript<Long> LOAD = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], 'id', ARGV[3], 'total', ARGV[4], 'version', 0)
+            for i = 5, #ARGV, 3 do
+                redis.call('HSET', KEYS[1], 'c:' .. ARGV[i], ARGV[i + 1], 'p:' .. ARGV[i], ARGV[i + 2])
+            end
+            redis.call('ZADD', KEYS[2], ARGV[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    // Operations come as (type, product id, count, current price); items at count 0 are removed.
+    private static final RedisScript<Long> APPLY_OPERATIONS = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return nil
+            end
+            local delta = 0
+            for i = 3, #ARGV, 4 do
+                local countField = 'c:' .. ARGV[i + 1]
+                local priceField = 'p:' .. ARGV[i + 1]
+                local oldCount = tonumber(redis.call('HGET', KEYS[1], countField) or '0')
+                local newCount = tonumber(ARGV[i + 2])
+                if ARGV[i] == 'ADD' then
+                    newCount = oldCount + newCount
+                elseif ARGV[i] == 'REMOVE' then
+                    newCount = 0
+                end
+                if newCount ~= oldCount then
+                    if oldCount == 0 then
+                        redis.call('HSET', KEYS[1], priceField, ARGV[i + 3])
+                    end
+                    delta = delta + (newCount - oldCount) * tonumber(redis.call('HGET', KEYS[1], priceField))
+                    if newCount == 0 then
+                        redis.call('HDEL', KEYS[1], countField, priceField)
+                    else
+                        redis.call('HSET', KEYS[1], countField, newCount)
+                    end
+                end
+            end
+            redis.call('HINCRBY', KEYS[1], 'total', delta)
+            redis.call('HINCRBY', KEYS[1], 'version', 1)
+            redis.call('ZADD', KEYS[2], ARGV[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> EVICT_IF_UNCHANGED = RedisScript.of("""
+            local version = redis.call('HGET', KEYS[1], 'version')
+            if version and version ~= ARGV[1] then
+                return 0
+            end
+            redis.call('DEL', KEYS[1])
+            redis.call('ZREM', KEYS[2], ARGV[2])
+            return 1
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public Optional<BasketItemResponse> addItem(Long userId, Long productId, int count, int price) {
+        List<?> result = redisTemplate.execute(ADD_ITEM, keys(userId),
+                productId.toString(), String.valueOf(count), String.valueOf(price), now(), userId.toString());
+
+        if (result == null || result.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(BasketItemResponse.builder()
+                .basketId((Long) result.get(1))
+                .productId(productId)
+                .count(((Long) result.get(0)).intValue())
+                .build());
+    }
+
+    // Returns false when the basket is not loaded.
+    public boolean applyOperations(Long userId, List<BasketOperationRequest> operations,
+                                   Map<Long, Integer> currentPrices) {
+        List<String> args = new ArrayList<>();
+        args.add(now());
+        args.add(userId.toString());
+
+        for (BasketOperationRequest operation : operations) {
+            args.add(operation.getType().name());
+            args.add(operation.getProductId().toString());
+            args.add(String.valueOf(operation.getCount() != null ? operation.getCount() : 0));
+            args.add(String.valueOf(currentPrices.getOrDefault(operation.getProductId(), 0)));
+        }
+
+        return redisTemplate.execute(APPLY_OPERATIONS, keys(userId), args.toArray()) != null;
+    }
+
+    public void load(Long userId, Basket basket) {
+        List<String> args = new ArrayList<>();
+        args.add(now());
+        args.add(userId.toString());
+        args.add(basket.getId().toString());
+        args.add(String.valueOf(basket.getItems().stream()
+                .mapToInt(item -> item.getPrice() * item.getCount())
+                .sum()));
+
+        for (BasketItem item : basket.getItems()) {
+            args.add(item.getProductId().toString());
+            args.add(item.getCount().toString());
+            args.add(item.getPrice().toString());
+        }
+
+        redisTemplate.execute(LOAD, keys(userId), args.toArray());
+    }
+
+    public Optional<HotBasket> snapshot(Long userId) {
+        Map<String, String> fields = redisTemplate.<String, String>opsForHash().entries(key(userId));
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Map<Long, HotBasket.Item> items = new HashMap<>();
+        fields.forEach((field, value) -> {
+            if (field.startsWith(COUNT_PREFIX)) {
+                String productId = field.substring(COUNT_PREFIX.length());
+                items.put(Long.valueOf(productId), new HotBasket.Item(
+                        Integer.parseInt(value),
+                        Integer.parseInt(fields.get(PRICE_PREFIX + productId))
+                ));
+            }
+        });
+
+        return Optional.of(new HotBasket(
+                Long.valueOf(fields.get(BASKET_ID)),
+                Long.parseLong(fields.get(VERSION)),
+                Integer.parseInt(fields.get(TOTAL_PRICE)),
+                items
+        ));
+    }
+
+    public boolean evictIfUnchanged(Long userId, long version) {
+        Long evicted = redisTemplate.execute(EVICT_IF_UNCHANGED, keys(userId), String.valueOf(version), userId.toString());
+
+        return evicted != null && evicted == 1;
+    }
+
+    public List<Long> findIdleUserIds(long idleSinceMillis, int limit) {
+        Set<String> userIds = redisTemplate.opsForZSet().rangeByScore(ACTIVE_KEY, 0, idleSinceMillis, 0, limit);
+        if (userIds == null) {
+            return List.of();
+        }
+
+        return userIds.stream()
+                .map(Long::valueOf)
+                .toList();
+    }
+
+    private List<String> keys(Long userId) {
+        return List.of(key(userId), ACTIVE_KEY);
+    }
+
+    private String key(Long userId) {
+        return KEY_PREFIX + userId;
+    }
+
+    private String now() {
+        return String.valueOf(System.currentTimeMillis());
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.marketplace.serviceOrder.service.grpc;
+
+import io.grpc.Channel;
+import io.grpc.ManagedChannel;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GrpcChannelPool {
+
+    private final List<ManagedChannel> channels;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    public GrpcChannelPool(List<ManagedChannel> channels) {
+        if (channels.isEmpty()) {
+            throw new IllegalArgumentException("Channel pool must contain at least one channel.");
+        }
+
+        this.channels = List.copyOf(channels);
+    }
+
+    public Channel nextChannel() {
+        return channels.get(Math.floorMod(nextIndex.getAndIncrement(), channels.size()));
+    }
+
+    public int size() {
+        return channels.size();
+    }
+
+    public void shutdown() {
+        channels.forEach(ManagedChannel::shutdown);
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.marketplace.serviceOrder.service.grpc;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+@Component
+public class ProductExistenceCache implements MeterBinder {
+
+    private final Map<Long, Long> expirations;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Autowired
+    public ProductExistenceCache(
+            @Value("${product.existence-cache.max-size:10000}") int maxSize,
+            @Value("${product.existence-cache.ttl-seconds:300}") long ttlSeconds)
+    {
+        this(maxSize, TimeUnit.SECONDS.toNanos(ttlSeconds), System::nanoTime);
+    }
+
+    ProductExistenceCache(int maxSize, long ttlNanos, LongSupplier nanoClock) {
+        this.ttlNanos = ttlNanos;
+        this.nanoClock = nanoClock;
+        this.expirations = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public boolean contains(Long productId) {
+        synchronized (expirations) {
+            Long expiresAt = expirations.get(productId);
+
+            if (expiresAt != null && expiresAt - nanoClock.getAsLong() > 0) {
+                hits.incrementAndGet();
+                return true;
+            }
+
+            if (expiresAt != null) {
+                expirations.remove(productId);
+            }
+        }
+
+        misses.incrementAndGet();
+        return false;
+    }
+
+    public void markExisting(Long productId) {
+        synchronized (expirations) {
+            expirations.put(productId, nanoClock.getAsLong() + ttlNanos);
+        }
+    }
+
+    public void invalidate(Long productId) {
+        synchronized (expirations) {
+            expirations.remove(productId);
+        }
+    }
+
+    public int size() {
+        synchronized (expirations) {
+            return expirations.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("product.existence.cache.hits", this, ProductExistenceCache::getHits)
+                .register(registry);
+        FunctionCounter.builder("product.existence.cache.misses", this, ProductExistenceCache::getMisses)
+                .register(registry);
+        Gauge.builder("product.existence.cache.size", this, ProductExistenceCache::size)
+                .register(registry);
+    }
+
+}
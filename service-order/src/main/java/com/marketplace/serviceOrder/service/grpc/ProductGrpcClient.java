@@ -1,77 +1,210 @@
 package com.marketplace.serviceOrder.service.grpc;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.marketplace.grpc.Product;
 import com.marketplace.grpc.ProductServiceGrpc;
 import com.marketplace.serviceOrder.dto.grpc.BasketItemValidationResult;
 import com.marketplace.serviceOrder.dto.grpc.BasketValidationResult;
 import com.marketplace.serviceOrder.entity.BasketItem;
 import com.marketplace.serviceOrder.entity.OrderItem;
+import com.marketplace.serviceOrder.exception.ProductException;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
 import lombok.RequiredArgsConstructor;
-import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductGrpcClient {
 
-    @GrpcClient("service-product")
-    private ProductServiceGrpc.ProductServiceBlockingStub blockingStub;
+    private final GrpcChannelPool productChannelPool;
+    private final ProductExistenceCache productExistenceCache;
+
+    @Value("${product.grpc.deadline.validate-product-ms:1000}")
+    private long validateProductDeadlineMs;
+
+    @Value("${product.grpc.deadline.validate-basket-ms:5000}")
+    private long validateBasketDeadlineMs;
+
+    @Value("${product.grpc.deadline.stream-basket-ms:30000}")
+    private long streamBasketDeadlineMs;
+
+    @Value("${product.grpc.basket-streaming-threshold:5000}")
+    private int basketStreamingThreshold;
+
+    @Value("${product.grpc.deadline.cancel-reservation-ms:5000}")
+    private long cancelReservationDeadlineMs;
+
+    public CompletableFuture<Boolean> validateProductAsync(Long productId) {
+        if (productExistenceCache.contains(productId)) {
+            return CompletableFuture.completedFuture(true);
+        }
 
-    public boolean validateProduct(Long productId) {
         Product.ValidateProductRequest request = Product.ValidateProductRequest.newBuilder()
                 .setProductId(productId)
                 .build();
 
-        Product.ValidateProductResponse response = blockingStub.validateProduct(request);
+        return toCompletableFuture(futureStub(validateProductDeadlineMs).validateProduct(request))
+                .thenApply(response -> {
+                    if (response.getProductExist()) {
+                        productExistenceCache.markExisting(productId);
+                    } else {
+                        productExistenceCache.invalidate(productId);
+                    }
 
-        return response.getProductExist();
+                    return response.getProductExist();
+                });
     }
 
-    public BasketValidationResult validateBasketItems(List<BasketItem> items) {
+    public boolean validateProduct(Long productId) {
+        return await(validateProductAsync(productId));
+    }
+
+    public CompletableFuture<BasketValidationResult> validateBasketItemsAsync(List<BasketItem> items) {
         Product.BasketValidationRequest request = createBasketValidationRequest(items);
-        Product.BasketValidationResponse response = blockingStub.validateBasketProducts(request);
 
-        return mapToBasketValidationResult(response);
+        return toCompletableFuture(futureStub(validateBasketDeadlineMs).validateBasketProducts(request))
+                .thenApply(this::mapToBasketValidationResult);
     }
 
-    private Product.BasketValidationRequest createBasketValidationRequest(List<BasketItem> items) {
+    public BasketValidationResult validateBasketItems(List<BasketItem> items) {
+        if (items.size() >= basketStreamingThreshold) {
+            return await(streamBasketItemsAsync(items));
+        }
+
+        return await(validateBasketItemsAsync(items));
+    }
+
+    // Current prices and stock of the products without reserving anything, for basket edits.
+    public CompletableFuture<BasketValidationResult> checkBasketProductsAsync(Map<Long, Integer> requestedCounts) {
         Product.BasketValidationRequest.Builder requestBuilder = Product.BasketValidationRequest.newBuilder();
 
-        items.forEach(item -> {
-            Product.BasketItemRequest itemRequest = Product.BasketItemRequest.newBuilder()
-                    .setProductId(item.getProductId())
-                    .setCount(item.getCount())
-                    .build();
+        requestedCounts.forEach((productId, count) -> requestBuilder.addItems(Product.BasketItemRequest.newBuilder()
+                .setProductId(productId)
+                .setCount(count)));
 
-            requestBuilder.addItems(itemRequest);
-        });
+        return toCompletableFuture(futureStub(validateBasketDeadlineMs).checkBasketProducts(requestBuilder.build()))
+                .thenApply(this::mapToBasketValidationResult);
+    }
+
+    public BasketValidationResult checkBasketProducts(Map<Long, Integer> requestedCounts) {
+        return await(checkBasketProductsAsync(requestedCounts));
+    }
+
+    public CompletableFuture<BasketValidationResult> streamBasketItemsAsync(List<BasketItem> items) {
+        CompletableFuture<BasketValidationResult> future = new CompletableFuture<>();
+        Map<Long, Integer> requestedCounts = items.stream()
+                .collect(Collectors.toMap(BasketItem::getProductId, BasketItem::getCount, Integer::sum, LinkedHashMap::new));
+
+        ClientResponseObserver<Product.BasketItemRequest, Product.ProductValidationResult> responseObserver =
+                new ClientResponseObserver<>() {
+                    private final Iterator<Map.Entry<Long, Integer>> pending = requestedCounts.entrySet().iterator();
+                    private final Map<Long, BasketItemValidationResult> resultMap = new HashMap<>();
+                    private boolean requestsCompleted;
+
+                    @Override
+                    public void beforeStart(ClientCallStreamObserver<Product.BasketItemRequest> requestStream) {
+                        requestStream.setOnReadyHandler(() -> {
+                            while (requestStream.isReady() && pending.hasNext()) {
+                                Map.Entry<Long, Integer> next = pending.next();
+                                requestStream.onNext(createBasketItemRequest(next.getKey(), next.getValue()));
+                            }
+
+                            if (!pending.hasNext() && !requestsCompleted) {
+                                requestsCompleted = true;
+                                requestStream.onCompleted();
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void onNext(Product.ProductValidationResult result) {
+                        resultMap.put(result.getProductId(), mapToBasketItemValidationResult(result));
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        future.completeExceptionally(throwable);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        future.complete(new BasketValidationResult(resultMap));
+                    }
+                };
+
+        ProductServiceGrpc.newStub(productChannelPool.nextChannel())
+                .withDeadlineAfter(streamBasketDeadlineMs, TimeUnit.MILLISECONDS)
+                .streamBasketProducts(responseObserver);
+
+        return future;
+    }
+
+    private Product.BasketValidationRequest createBasketValidationRequest(List<BasketItem> items) {
+        Product.BasketValidationRequest.Builder requestBuilder = Product.BasketValidationRequest.newBuilder();
+
+        items.forEach(item -> requestBuilder.addItems(createBasketItemRequest(item.getProductId(), item.getCount())));
 
         return requestBuilder.build();
     }
 
+    private Product.BasketItemRequest createBasketItemRequest(Long productId, int count) {
+        return Product.BasketItemRequest.newBuilder()
+                .setProductId(productId)
+                .setCount(count)
+                .build();
+    }
+
     private BasketValidationResult mapToBasketValidationResult(Product.BasketValidationResponse response) {
         Map<Long, BasketItemValidationResult> resultMap = response.getResultsList().stream()
                 .collect(Collectors.toMap(
                         Product.ProductValidationResult::getProductId,
-                        result -> new BasketItemValidationResult(
-                                result.getProductExists(),
-                                result.getCurrentPrice(),
-                                result.getRequestedCount(),
-                                result.getAvailableCount(),
-                                result.getIsCountSufficient()
-                        )
+                        this::mapToBasketItemValidationResult
                 ));
 
         return new BasketValidationResult(resultMap);
     }
 
-    public void cancelBasketReservation(List<OrderItem> items) {
+    private BasketItemValidationResult mapToBasketItemValidationResult(Product.ProductValidationResult result) {
+        if (result.getProductExists()) {
+            productExistenceCache.markExisting(result.getProductId());
+        } else {
+            productExistenceCache.invalidate(result.getProductId());
+        }
+
+        return new BasketItemValidationResult(
+                result.getProductExists(),
+                result.getCurrentPrice(),
+                result.getRequestedCount(),
+                result.getAvailableCount(),
+                result.getIsCountSufficient()
+        );
+    }
+
+    public CompletableFuture<Void> cancelBasketReservationAsync(List<OrderItem> items) {
         Product.CancelBasketReservationRequest request = createCancelBasketReservationRequest(items);
-        Product.CancelBasketReservationResult result = blockingStub.cancelBasketReservation(request);
+
+        return toCompletableFuture(futureStub(cancelReservationDeadlineMs).cancelBasketReservation(request))
+                .thenAccept(result -> {});
+    }
+
+    public void cancelBasketReservation(List<OrderItem> items) {
+        await(cancelBasketReservationAsync(items));
     }
 
     private Product.CancelBasketReservationRequest createCancelBasketReservationRequest(List<OrderItem> items) {
@@ -90,4 +223,45 @@ public class ProductGrpcClient {
         return requestBuilder.build();
     }
 
+    private ProductServiceGrpc.ProductServiceFutureStub futureStub(long deadlineMs) {
+        return ProductServiceGrpc.newFutureStub(productChannelPool.nextChannel())
+                .withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS);
+    }
+
+    private <T> CompletableFuture<T> toCompletableFuture(ListenableFuture<T> listenableFuture) {
+        CompletableFuture<T> completableFuture = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                listenableFuture.cancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+
+        Futures.addCallback(listenableFuture, new FutureCallback<>() {
+            @Override
+            public void onSuccess(T result) {
+                completableFuture.complete(result);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                completableFuture.completeExceptionally(throwable);
+            }
+        }, MoreExecutors.directExecutor());
+
+        return completableFuture;
+    }
+
+    public <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof StatusRuntimeException statusException) {
+                throw new ProductException("Product service call failed: " + statusException.getStatus().getCode());
+            }
+
+            throw e;
+        }
+    }
+
 }
@@ -1,18 +1,22 @@
 package com.marketplace.serviceOrder.service.handler;
 
-import com.marketplace.serviceOrder.dto.event.ProductEvent;
+import com.marketplace.events.Events.ProductEvent;
+import com.marketplace.serviceOrder.entity.OutboxEvent;
+import com.marketplace.serviceOrder.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class ProductEventPublisher {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxEventRepository outboxEventRepository;
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void sendProductToKafka(ProductEvent event) {
-        kafkaTemplate.send("products", event.getId().toString(), event);
+        outboxEventRepository.save(new OutboxEvent("products", String.valueOf(event.getId()), event.toByteArray()));
     }
 
 }
@@ -1,8 +1,6 @@
 package com.marketplace.serviceOrder.service.handler;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.marketplace.serviceOrder.dto.event.UserEvent;
+import com.marketplace.events.Events.UserEvent;
 import com.marketplace.serviceOrder.service.BasketService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -13,11 +11,10 @@ import org.springframework.stereotype.Service;
 public class UserEventHandler {
 
     private final BasketService basketService;
-    private final ObjectMapper objectMapper;
 
-    @KafkaListener(topics = "users")
-    public void createBasketForUser(String message) throws JsonProcessingException {
-        UserEvent userEvent = objectMapper.readValue(message, UserEvent.class);
+    // Records are keyed by user id, so each user stays on one partition and one consumer thread.
+    @KafkaListener(topics = "users", concurrency = "${order.kafka.users.concurrency:${spring.kafka.listener.concurrency:1}}")
+    public void createBasketForUser(UserEvent userEvent) {
         basketService.createBasket(userEvent.getId());
     }
 
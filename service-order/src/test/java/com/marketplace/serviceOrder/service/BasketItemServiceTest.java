@@ -1,4 +1,314 @@
 package com.marketplace.serviceOrder.service;
 
-public class BasketItemServiceTest {
+import com.marketplace.serviceOrder.ServiceOrderApplication;
+import com.marketplace.serviceOrder.config.HibernateConfig;
+import com.marketplace.serviceOrder.dto.grpc.BasketItemValidationResult;
+import com.marketplace.serviceOrder.dto.grpc.BasketValidationResult;
+import com.marketplace.serviceOrder.dto.request.AddItemRequest;
+import com.marketplace.serviceOrder.dto.request.BasketOperationRequest;
+import com.marketplace.serviceOrder.dto.response.BasketItemResponse;
+import com.marketplace.serviceOrder.dto.response.BasketResponse;
+import com.marketplace.serviceOrder.entity.Basket;
+import com.marketplace.serviceOrder.entity.BasketItem;
+import com.marketplace.serviceOrder.enums.BasketOperationType;
+import com.marketplace.serviceOrder.exception.BasketItemException;
+import com.marketplace.serviceOrder.exception.ProductException;
+import com.marketplace.serviceOrder.repository.BasketItemRepository;
+import com.marketplace.serviceOrder.repository.BasketRepository;
+import com.marketplace.serviceOrder.service.grpc.ProductGrpcClient;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ContextConfiguration(classes = ServiceOrderApplication.class)
+@Import({HibernateConfig.class, BasketItemService.class, BasketService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BasketItemServiceTest {
+
+    @Autowired
+    private BasketItemService basketItemService;
+
+    @Autowired
+    private BasketService basketService;
+
+    @Autowired
+    private BasketRepository basketRepository;
+
+    @Autowired
+    private BasketItemRepository basketItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private ProductGrpcClient productGrpcClient;
+
+    @BeforeEach
+    void setUp() {
+        when(productGrpcClient.validateProductAsync(anyLong())).thenReturn(CompletableFuture.completedFuture(true));
+        when(productGrpcClient.await(any())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        basketItemRepository.deleteAll();
+        basketRepository.deleteAll();
+    }
+
+    @Test
+    void addItem_ShouldTakeTheSameStatementsForSmallAndLargeBaskets() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Long> statementCounts = new ArrayList<>();
+
+        for (long userId : new long[]{1, 2}) {
+            saveBasket(userId, userId == 1 ? 1 : 100);
+
+            // Warm up the item id pool so both runs start from the same state.
+            basketItemService.addItem(userId, request(500L, 1, 100));
+
+            statistics.clear();
+            basketItemService.addItem(userId, request(500L, 2, 100));
+            basketItemService.addItem(userId, request(600L, 3, 200));
+            statementCounts.add(statistics.getPrepareStatementCount());
+        }
+
+        assertEquals(statementCounts.get(0), statementCounts.get(1));
+        assertEquals(1 * 10 + 300 + 600, basketService.findBasketByUserId(1L).getTotalPrice());
+        assertEquals(100 * 10 + 300 + 600, basketService.findBasketByUserId(2L).getTotalPrice());
+        assertEquals(0, basketService.reconcileTotalPrices());
+    }
+
+    @Test
+    void addItem_WithNewProduct_ShouldAddRequestedCount() {
+        saveBasket(1L, 0);
+
+        BasketItemResponse response = basketItemService.addItem(1L, request(500L, 3, 100));
+
+        assertEquals(3, response.getCount());
+        assertEquals(300, basketService.findBasketByUserId(1L).getTotalPrice());
+    }
+
+    @Test
+    void addItem_ShouldWaitForProductCheckOutsideTransaction() {
+        saveBasket(1L, 0);
+        when(productGrpcClient.await(any())).thenAnswer(invocation -> {
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            return true;
+        });
+
+        basketItemService.addItem(1L, request(500L, 1, 100));
+
+        verify(productGrpcClient).await(any());
+        assertEquals(100, basketService.findBasketByUserId(1L).getTotalPrice());
+    }
+
+    @Test
+    void addItem_WhenTotalCannotBeApplied_ShouldNotKeepTheItem() {
+        saveBasket(1L, 1);
+
+        assertThrows(RuntimeException.class, () -> basketItemService.addItem(1L, request(500L, 2, null)));
+
+        assertEquals(1, basketItemRepository.count());
+        assertEquals(10, basketService.findBasketByUserId(1L).getTotalPrice());
+    }
+
+    @Test
+    void applyOperations_ShouldApplyOperationsInOrderWithOneProductCheck() {
+        saveBasket(1L, 3);
+        mockCheckBasketProducts();
+
+        BasketResponse response = basketItemService.applyOperations(1L, List.of(
+                operation(BasketOperationType.ADD, 1L, 2),
+                operation(BasketOperationType.REMOVE, 2L, null),
+                operation(BasketOperationType.SET_COUNT, 3L, 0),
+                operation(BasketOperationType.ADD, 7L, 1),
+                operation(BasketOperationType.SET_COUNT, 7L, 4),
+                operation(BasketOperationType.ADD, 8L, 1),
+                operation(BasketOperationType.REMOVE, 8L, null)
+        ));
+
+        verify(productGrpcClient, times(1)).checkBasketProducts(any());
+        verifyNoMoreInteractions(productGrpcClient);
+        assertEquals(3 * 10 + 4 * 70, response.getTotalPrice());
+        assertEquals(Map.of(1L, 3, 7L, 4), response.getItems().stream()
+                .collect(Collectors.toMap(BasketItemResponse::getProductId, BasketItemResponse::getCount)));
+        assertTrue(response.getItems().stream().allMatch(item -> item.getItemId() != null));
+        assertEquals(3 * 10 + 4 * 70, basketService.findBasketByUserId(1L).getTotalPrice());
+        assertEquals(2, basketItemRepository.count());
+        assertEquals(0, basketService.reconcileTotalPrices());
+    }
+
+    @Test
+    void applyOperations_ComparedToSingleAdds_ShouldTakeFewerStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        saveBasket(1L, 0);
+        saveBasket(2L, 0);
+        mockCheckBasketProducts();
+
+        statistics.clear();
+        for (long productId = 1; productId <= 50; productId++) {
+            basketItemService.addItem(1L, request(productId, 1, 10 * (int) productId));
+        }
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        basketItemService.applyOperations(2L, LongStream.rangeClosed(1, 50)
+                .mapToObj(productId -> operation(BasketOperationType.ADD, productId, 1))
+                .toList());
+        long batchStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(basketService.findBasketByUserId(1L).getTotalPrice(), basketService.findBasketByUserId(2L).getTotalPrice());
+        assertTrue(batchStatements * 10 < singleStatements, "batch took " + batchStatements + " statements");
+    }
+
+    @Test
+    void applyOperations_WithUnknownProduct_ShouldRejectTheWholeBatch() {
+        saveBasket(1L, 1);
+        mockCheckBasketProducts();
+
+        assertThrows(ProductException.class, () -> basketItemService.applyOperations(1L, List.of(
+                operation(BasketOperationType.ADD, 1L, 1),
+                operation(BasketOperationType.ADD, 0L, 1)
+        )));
+
+        assertEquals(1, basketItemRepository.findAll().get(0).getCount());
+        assertEquals(10, basketService.findBasketByUserId(1L).getTotalPrice());
+    }
+
+    @Test
+    void applyOperations_WithInvalidCount_ShouldThrowException() {
+        assertThrows(BasketItemException.class, () -> basketItemService.applyOperations(1L, List.of(
+                operation(BasketOperationType.SET_COUNT, 1L, -1)
+        )));
+
+        verifyNoInteractions(productGrpcClient);
+    }
+
+    @Test
+    void validateBasket_WithNotExistAndRepricedItems_ShouldApplyTotalDelta() {
+        saveBasket(1L, 3);
+        when(productGrpcClient.validateBasketItems(any())).thenReturn(new BasketValidationResult(Map.of(
+                1L, validationResult(true, 10),
+                2L, validationResult(false, 0),
+                3L, validationResult(true, 25)
+        )));
+
+        Basket basket = new TransactionTemplate(transactionManager).execute(status -> {
+            Basket validated = basketRepository.findByUserId(1L).orElseThrow();
+            basketService.validateBasket(validated);
+            return validated;
+        });
+
+        assertEquals(2, basket.getItems().size());
+        assertEquals(10 + 25, basket.getTotalPrice());
+        assertEquals(10 + 25, basketService.findBasketByUserId(1L).getTotalPrice());
+        assertEquals(2, basketItemRepository.count());
+    }
+
+    @Test
+    void validateBasket_WithMissingResult_ShouldKeepItemsAndThrowException() {
+        saveBasket(1L, 2);
+        when(productGrpcClient.validateBasketItems(any())).thenReturn(new BasketValidationResult(Map.of(
+                1L, validationResult(true, 10)
+        )));
+
+        assertThrows(ProductException.class, () -> new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> basketService.validateBasket(basketRepository.findByUserId(1L).orElseThrow())));
+
+        assertEquals(2, basketItemRepository.count());
+        assertEquals(20, basketService.findBasketByUserId(1L).getTotalPrice());
+    }
+
+    @Test
+    void reconcileTotalPrices_ShouldFixDriftedTotals() {
+        saveBasket(1L, 5);
+        saveBasket(2L, 2);
+        jdbcTemplate.update("UPDATE baskets SET total_price = 7 WHERE user_id = 1");
+
+        assertEquals(1, basketService.reconcileTotalPrices());
+        assertEquals(50, basketService.findBasketByUserId(1L).getTotalPrice());
+        assertEquals(20, basketService.findBasketByUserId(2L).getTotalPrice());
+    }
+
+    private void saveBasket(Long userId, int itemCount) {
+        Basket basket = new Basket();
+        basket.setUserId(userId);
+        basket.setTotalPrice(itemCount * 10);
+
+        for (long productId = 1; productId <= itemCount; productId++) {
+            BasketItem item = new BasketItem();
+            item.setProductId(productId);
+            item.setCount(1);
+            item.setPrice(10);
+            item.setBasket(basket);
+            basket.getItems().add(item);
+        }
+
+        basketRepository.save(basket);
+    }
+
+    private AddItemRequest request(Long productId, int count, Integer price) {
+        AddItemRequest request = new AddItemRequest();
+        request.setProductId(productId);
+        request.setCount(count);
+        request.setPrice(price);
+
+        return request;
+    }
+
+    // Products with positive ids exist and cost ten times their id.
+    private void mockCheckBasketProducts() {
+        when(productGrpcClient.checkBasketProducts(any())).thenAnswer(invocation -> {
+            Map<Long, Integer> requestedCounts = invocation.getArgument(0);
+
+            return new BasketValidationResult(requestedCounts.keySet().stream()
+                    .collect(Collectors.toMap(
+                            Function.identity(),
+                            productId -> validationResult(productId > 0, 10 * productId.intValue())
+                    )));
+        });
+    }
+
+    private BasketOperationRequest operation(BasketOperationType type, Long productId, Integer count) {
+        return new BasketOperationRequest(type, productId, count);
+    }
+
+    private BasketItemValidationResult validationResult(boolean productExist, int currentPrice) {
+        return new BasketItemValidationResult(productExist, currentPrice, 1, 10, true);
+    }
+
 }
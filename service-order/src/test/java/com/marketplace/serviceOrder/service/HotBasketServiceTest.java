@@ -0,0 +1,209 @@
+package com.marketplace.serviceOrder.service;
+
+import com.marketplace.serviceOrder.dto.request.AddItemRequest;
+import com.marketplace.serviceOrder.dto.request.BasketOperationRequest;
+import com.marketplace.serviceOrder.dto.response.BasketItemResponse;
+import com.marketplace.serviceOrder.dto.response.BasketResponse;
+import com.marketplace.serviceOrder.entity.Basket;
+import com.marketplace.serviceOrder.entity.BasketItem;
+import com.marketplace.serviceOrder.enums.BasketOperationType;
+import com.marketplace.serviceOrder.exception.BasketItemException;
+import com.marketplace.serviceOrder.repository.BasketRepository;
+import com.marketplace.serviceOrder.service.cache.HotBasket;
+import com.marketplace.serviceOrder.service.cache.HotBasketStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotBasketServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Long BASKET_ID = 10L;
+
+    @Mock
+    private HotBasketStore hotBasketStore;
+
+    @Mock
+    private BasketRepository basketRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private HotBasketService hotBasketService;
+
+    @BeforeEach
+    void setUp() {
+        hotBasketService = new HotBasketService(hotBasketStore, basketRepository, transactionManager, 60_000, 100);
+    }
+
+    @Test
+    void addItem_WithLoadedBasket_ShouldNotTouchDatabase() {
+        when(hotBasketStore.addItem(USER_ID, 100L, 2, 500))
+                .thenReturn(Optional.of(response(100L, 3)));
+
+        BasketItemResponse response = hotBasketService.addItem(USER_ID, request(100L, 2, 500));
+
+        assertEquals(3, response.getCount());
+        assertEquals(BASKET_ID, response.getBasketId());
+        verifyNoInteractions(basketRepository);
+    }
+
+    @Test
+    void addItem_WithBasketNotLoaded_ShouldLoadItFromDatabaseOnce() {
+        Basket basket = basket(item(200L, 1, 300));
+        when(hotBasketStore.addItem(USER_ID, 100L, 2, 500))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(response(100L, 2)));
+        when(basketRepository.findWithItemsByUserId(USER_ID)).thenReturn(Optional.of(basket));
+
+        BasketItemResponse response = hotBasketService.addItem(USER_ID, request(100L, 2, 500));
+
+        assertEquals(2, response.getCount());
+        verify(hotBasketStore).load(USER_ID, basket);
+        verify(hotBasketStore, times(2)).addItem(USER_ID, 100L, 2, 500);
+    }
+
+    @Test
+    void addItem_WithoutPrice_ShouldThrowException() {
+        assertThrows(BasketItemException.class, () -> hotBasketService.addItem(USER_ID, request(100L, 2, null)));
+
+        verifyNoInteractions(hotBasketStore);
+    }
+
+    @Test
+    void applyOperations_WithBasketNotLoaded_ShouldLoadItAndApplyOnce() {
+        Basket basket = basket(item(200L, 1, 300));
+        List<BasketOperationRequest> operations = List.of(
+                new BasketOperationRequest(BasketOperationType.ADD, 100L, 2),
+                new BasketOperationRequest(BasketOperationType.REMOVE, 200L, null)
+        );
+        Map<Long, Integer> currentPrices = Map.of(100L, 500);
+        when(hotBasketStore.applyOperations(USER_ID, operations, currentPrices)).thenReturn(false, true);
+        when(basketRepository.findWithItemsByUserId(USER_ID)).thenReturn(Optional.of(basket));
+        when(hotBasketStore.snapshot(USER_ID)).thenReturn(Optional.of(new HotBasket(BASKET_ID, 1, 1000, Map.of(
+                100L, new HotBasket.Item(2, 500)
+        ))));
+
+        BasketResponse response = hotBasketService.applyOperations(USER_ID, operations, currentPrices);
+
+        verify(hotBasketStore).load(USER_ID, basket);
+        verify(hotBasketStore, times(2)).applyOperations(USER_ID, operations, currentPrices);
+        assertEquals(BASKET_ID, response.getBasketId());
+        assertEquals(1000, response.getTotalPrice());
+        assertEquals(1, response.getItems().size());
+        assertEquals(2, response.getItems().get(0).getCount());
+    }
+
+    @Test
+    void persist_ShouldWriteRedisBasketAndEvictItAfterCommit() {
+        Basket basket = basket(item(100L, 1, 500), item(200L, 4, 300));
+        when(basketRepository.findForUpdateByUserId(USER_ID)).thenReturn(Optional.of(basket));
+        when(hotBasketStore.snapshot(USER_ID)).thenReturn(Optional.of(new HotBasket(BASKET_ID, 7, 1900, Map.of(
+                100L, new HotBasket.Item(3, 500),
+                300L, new HotBasket.Item(2, 200)
+        ))));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            hotBasketService.persist(USER_ID);
+
+            verify(hotBasketStore, never()).evictIfUnchanged(anyLong(), anyLong());
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(hotBasketStore).evictIfUnchanged(USER_ID, 7);
+        verify(basketRepository).save(basket);
+        verify(basketRepository).updateTotalPrice(BASKET_ID, 1900);
+        assertEquals(1900, basket.getTotalPrice());
+        assertEquals(2, basket.getItems().size());
+        assertEquals(3, findItem(basket, 100L).getCount());
+        assertEquals(2, findItem(basket, 300L).getCount());
+        assertEquals(200, findItem(basket, 300L).getPrice());
+        assertSame(basket, findItem(basket, 300L).getBasket());
+    }
+
+    @Test
+    void persist_WithoutRedisBasket_ShouldKeepDatabaseBasket() {
+        when(basketRepository.findForUpdateByUserId(USER_ID)).thenReturn(Optional.of(basket(item(100L, 1, 500))));
+        when(hotBasketStore.snapshot(USER_ID)).thenReturn(Optional.empty());
+
+        hotBasketService.persist(USER_ID);
+
+        verify(basketRepository, never()).save(any());
+        verify(hotBasketStore, never()).evictIfUnchanged(anyLong(), anyLong());
+    }
+
+    @Test
+    void evictIdleBaskets_ShouldPersistEveryIdleBasket() {
+        when(hotBasketStore.findIdleUserIds(anyLong(), eq(100))).thenReturn(List.of(1L, 2L));
+
+        hotBasketService.evictIdleBaskets();
+
+        verify(basketRepository).findForUpdateByUserId(1L);
+        verify(basketRepository).findForUpdateByUserId(2L);
+    }
+
+    private AddItemRequest request(Long productId, Integer count, Integer price) {
+        AddItemRequest request = new AddItemRequest();
+        request.setProductId(productId);
+        request.setCount(count);
+        request.setPrice(price);
+
+        return request;
+    }
+
+    private BasketItemResponse response(Long productId, int count) {
+        return BasketItemResponse.builder()
+                .basketId(BASKET_ID)
+                .productId(productId)
+                .count(count)
+                .build();
+    }
+
+    private Basket basket(BasketItem... items) {
+        Basket basket = new Basket();
+        basket.setId(BASKET_ID);
+        basket.setUserId(USER_ID);
+
+        for (BasketItem item : items) {
+            item.setBasket(basket);
+            basket.getItems().add(item);
+        }
+
+        return basket;
+    }
+
+    private BasketItem item(Long productId, int count, int price) {
+        BasketItem item = new BasketItem();
+        item.setProductId(productId);
+        item.setCount(count);
+        item.setPrice(price);
+
+        return item;
+    }
+
+    private BasketItem findItem(Basket basket, Long productId) {
+        return basket.getItems().stream()
+                .filter(item -> item.getProductId().equals(productId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.marketplace.serviceOrder.service;
+
+import com.marketplace.serviceOrder.ServiceOrderApplication;
+import com.marketplace.serviceOrder.config.HibernateConfig;
+import com.marketplace.serviceOrder.entity.Basket;
+import com.marketplace.serviceOrder.entity.BasketItem;
+import com.marketplace.serviceOrder.entity.Order;
+import com.marketplace.serviceOrder.entity.OrderItem;
+import com.marketplace.serviceOrder.enums.OrderStatus;
+import com.marketplace.serviceOrder.repository.OrderItemRepository;
+import com.marketplace.serviceOrder.repository.OrderRepository;
+import com.marketplace.serviceOrder.service.handler.ProductEventPublisher;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ContextConfiguration(classes = ServiceOrderApplication.class)
+@Import({HibernateConfig.class, OrderItemService.class, ProductEventPublisher.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderItemServiceTest {
+
+    @Autowired
+    private OrderItemService orderItemService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        orderItemRepository.deleteAll();
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void createOrderItemsFromBasket_ShouldInsertItemsInBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        for (int itemCount : new int[]{1, 10, 100}) {
+            Order order = saveOrder();
+            Basket basket = basket(itemCount);
+
+            statistics.clear();
+            List<OrderItem> orderItems = transactionTemplate.execute(status ->
+                    orderItemService.createOrderItemsFromBasket(basket, order));
+            long statements = statistics.getPrepareStatementCount();
+
+            assertEquals(itemCount, orderItems.size());
+            assertTrue(orderItems.stream().allMatch(orderItem -> orderItem.getId() != null));
+            assertEquals(itemCount, statistics.getEntityInsertCount());
+            // One sequence call and one insert batch per 50 items, plus the optimizer's initial sequence call.
+            assertTrue(statements <= 3 + 2L * (itemCount / 50), itemCount + " items took " + statements + " statements");
+        }
+
+        assertEquals(111, orderItemRepository.count());
+    }
+
+    private Order saveOrder() {
+        Order order = new Order();
+        order.setUserId(1L);
+        order.setStatus(OrderStatus.PENDING);
+        order.setTotalPrice(0);
+        order.setAddress("Test address");
+
+        return orderRepository.save(order);
+    }
+
+    private Basket basket(int itemCount) {
+        Basket basket = new Basket();
+        basket.setUserId(1L);
+
+        for (long productId = 1; productId <= itemCount; productId++) {
+            BasketItem basketItem = new BasketItem();
+            basketItem.setProductId(productId);
+            basketItem.setPrice(100);
+            basketItem.setCount(1);
+            basketItem.setBasket(basket);
+            basket.getItems().add(basketItem);
+        }
+
+        return basket;
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.marketplace.serviceOrder.service.grpc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductExistenceCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void contains_WithMarkedProduct_ShouldCountHit() {
+        ProductExistenceCache cache = new ProductExistenceCache(10, TimeUnit.SECONDS.toNanos(60), now::get);
+
+        assertFalse(cache.contains(1L));
+        cache.markExisting(1L);
+
+        assertTrue(cache.contains(1L));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void contains_WithExpiredEntry_ShouldMissAndEvict() {
+        ProductExistenceCache cache = new ProductExistenceCache(10, TimeUnit.SECONDS.toNanos(60), now::get);
+        cache.markExisting(1L);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(61));
+
+        assertFalse(cache.contains(1L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void markExisting_OverMaxSize_ShouldEvictLeastRecentlyUsed() {
+        ProductExistenceCache cache = new ProductExistenceCache(2, TimeUnit.SECONDS.toNanos(60), now::get);
+        cache.markExisting(1L);
+        cache.markExisting(2L);
+        cache.contains(1L);
+
+        cache.markExisting(3L);
+
+        assertTrue(cache.contains(1L));
+        assertFalse(cache.contains(2L));
+        assertTrue(cache.contains(3L));
+        assertEquals(2, cache.size());
+    }
+
+}
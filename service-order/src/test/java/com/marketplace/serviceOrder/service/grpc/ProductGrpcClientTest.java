@@ -0,0 +1,276 @@
+package com.marketplace.serviceOrder.service.grpc;
+
+import com.marketplace.grpc.Product;
+import com.marketplace.grpc.ProductServiceGrpc;
+import com.marketplace.serviceOrder.dto.grpc.BasketItemValidationResult;
+import com.marketplace.serviceOrder.dto.grpc.BasketValidationResult;
+import com.marketplace.serviceOrder.entity.BasketItem;
+import com.marketplace.serviceOrder.exception.ProductException;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductGrpcClientTest {
+
+    private static final long SERVER_LATENCY_MS = 2;
+    private static final long SLOW_PRODUCT_ID = -1L;
+
+    private final ScheduledExecutorService responseScheduler = Executors.newScheduledThreadPool(4);
+    private final AtomicInteger validateProductCalls = new AtomicInteger();
+    private final AtomicInteger inFlightValidateProductCalls = new AtomicInteger();
+    private final AtomicInteger maxInFlightValidateProductCalls = new AtomicInteger();
+    private final AtomicInteger checkBasketProductsCalls = new AtomicInteger();
+    private final AtomicInteger largestMessageBytes = new AtomicInteger();
+
+    private Server server;
+    private GrpcChannelPool channelPool;
+    private ProductGrpcClient productGrpcClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String serverName = InProcessServerBuilder.generateName();
+
+        server = InProcessServerBuilder.forName(serverName)
+                .addService(new DelayedProductService())
+                .build()
+                .start();
+
+        List<ManagedChannel> channels = IntStream.range(0, 4)
+                .mapToObj(i -> (ManagedChannel) InProcessChannelBuilder.forName(serverName).build())
+                .toList();
+        channelPool = new GrpcChannelPool(channels);
+
+        productGrpcClient = new ProductGrpcClient(channelPool, new ProductExistenceCache(0, 0, System::nanoTime));
+        ReflectionTestUtils.setField(productGrpcClient, "validateProductDeadlineMs", 200L);
+        ReflectionTestUtils.setField(productGrpcClient, "validateBasketDeadlineMs", 1000L);
+        ReflectionTestUtils.setField(productGrpcClient, "cancelReservationDeadlineMs", 1000L);
+        ReflectionTestUtils.setField(productGrpcClient, "streamBasketDeadlineMs", 30000L);
+        ReflectionTestUtils.setField(productGrpcClient, "basketStreamingThreshold", 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channelPool.shutdown();
+        server.shutdownNow();
+        responseScheduler.shutdownNow();
+    }
+
+    @Test
+    void validateProduct_WithExistingProduct_ShouldReturnTrue() {
+        assertTrue(productGrpcClient.validateProduct(1L));
+    }
+
+    @Test
+    void validateProduct_WithNotExistingProduct_ShouldReturnFalse() {
+        assertFalse(productGrpcClient.validateProduct(0L));
+    }
+
+    @Test
+    void validateProduct_WithCachedProduct_ShouldSkipRemoteCall() {
+        ProductExistenceCache cache = new ProductExistenceCache(100, TimeUnit.MINUTES.toNanos(5), System::nanoTime);
+        ProductGrpcClient cachingClient = new ProductGrpcClient(channelPool, cache);
+        ReflectionTestUtils.setField(cachingClient, "validateProductDeadlineMs", 200L);
+
+        assertTrue(cachingClient.validateProduct(1L));
+        assertTrue(cachingClient.validateProduct(1L));
+        assertFalse(cachingClient.validateProduct(0L));
+        assertFalse(cachingClient.validateProduct(0L));
+
+        assertEquals(3, validateProductCalls.get());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void validateProduct_WhenDeadlineExceeded_ShouldThrowProductException() {
+        ProductException exception = assertThrows(ProductException.class,
+                () -> productGrpcClient.validateProduct(SLOW_PRODUCT_ID));
+
+        assertEquals("Product service call failed: DEADLINE_EXCEEDED", exception.getMessage());
+    }
+
+    @Test
+    void validateProductAsync_ComparedToBlocking_ShouldKeepCallsInFlight() {
+        int calls = 100;
+
+        for (long productId = 1; productId <= calls; productId++) {
+            assertTrue(productGrpcClient.validateProduct(productId));
+        }
+        int blockingMaxInFlight = maxInFlightValidateProductCalls.getAndSet(0);
+
+        List<CompletableFuture<Boolean>> futures = IntStream.rangeClosed(1, calls)
+                .mapToObj(productId -> productGrpcClient.validateProductAsync((long) productId))
+                .toList();
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        futures.forEach(future -> assertTrue(future.join()));
+        assertEquals(1, blockingMaxInFlight);
+        assertTrue(maxInFlightValidateProductCalls.get() > 1);
+    }
+
+    @Test
+    void validateBasketItems_WithLargeBasket_ShouldStreamAndMatchUnaryResult() {
+        List<BasketItem> items = LongStream.rangeClosed(1, 10_000)
+                .mapToObj(productId -> createBasketItem(productId, (int) (productId % 5) + 1))
+                .toList();
+
+        BasketValidationResult unaryResult = productGrpcClient.validateBasketItemsAsync(items).join();
+        int unaryLargestMessage = largestMessageBytes.getAndSet(0);
+
+        BasketValidationResult streamResult = productGrpcClient.validateBasketItems(items);
+        int streamLargestMessage = largestMessageBytes.get();
+
+        assertEquals(items.size(), streamResult.getResultsByProductId().size());
+        items.forEach(item -> {
+            BasketItemValidationResult expected = unaryResult.getResultForItem(item.getProductId());
+            BasketItemValidationResult actual = streamResult.getResultForItem(item.getProductId());
+
+            assertEquals(expected.getCurrentPrice(), actual.getCurrentPrice());
+            assertEquals(expected.getRequestedCount(), actual.getRequestedCount());
+            assertEquals(expected.isCountSufficient(), actual.isCountSufficient());
+        });
+        assertTrue(streamLargestMessage < unaryLargestMessage);
+    }
+
+    @Test
+    void streamBasketItemsAsync_WithDuplicateLines_ShouldValidateSummedCount() {
+        List<BasketItem> items = List.of(createBasketItem(1L, 2), createBasketItem(2L, 1), createBasketItem(1L, 2));
+
+        BasketValidationResult result = productGrpcClient.streamBasketItemsAsync(items).join();
+
+        assertEquals(2, result.getResultsByProductId().size());
+        assertEquals(4, result.getResultForItem(1L).getRequestedCount());
+        assertFalse(result.getResultForItem(1L).isCountSufficient());
+    }
+
+    @Test
+    void checkBasketProducts_ShouldReturnPricesOfAllProductsInOneCall() {
+        Map<Long, Integer> requestedCounts = new LinkedHashMap<>();
+        requestedCounts.put(1L, 2);
+        requestedCounts.put(0L, 1);
+
+        BasketValidationResult result = productGrpcClient.checkBasketProducts(requestedCounts);
+
+        assertEquals(1, checkBasketProductsCalls.get());
+        assertTrue(result.getResultForItem(1L).isProductExist());
+        assertEquals(100, result.getResultForItem(1L).getCurrentPrice());
+        assertFalse(result.getResultForItem(0L).isProductExist());
+    }
+
+    private BasketItem createBasketItem(long productId, int count) {
+        BasketItem item = new BasketItem();
+        item.setProductId(productId);
+        item.setCount(count);
+        item.setPrice(100);
+        return item;
+    }
+
+    private Product.ProductValidationResult createValidationResult(Product.BasketItemRequest item) {
+        return Product.ProductValidationResult.newBuilder()
+                .setProductId(item.getProductId())
+                .setProductExists(true)
+                .setCurrentPrice(100)
+                .setRequestedCount(item.getCount())
+                .setAvailableCount(Math.max(0, 3 - item.getCount()))
+                .setIsCountSufficient(item.getCount() <= 3)
+                .build();
+    }
+
+    private void recordMessageSize(int bytes) {
+        largestMessageBytes.accumulateAndGet(bytes, Math::max);
+    }
+
+    private class DelayedProductService extends ProductServiceGrpc.ProductServiceImplBase {
+
+        @Override
+        public void validateProduct(Product.ValidateProductRequest request,
+                                    StreamObserver<Product.ValidateProductResponse> responseObserver) {
+            validateProductCalls.incrementAndGet();
+            maxInFlightValidateProductCalls.accumulateAndGet(inFlightValidateProductCalls.incrementAndGet(), Math::max);
+            long productId = request.getProductId();
+            long latencyMs = productId == SLOW_PRODUCT_ID ? 1000 : SERVER_LATENCY_MS;
+
+            responseScheduler.schedule(() -> {
+                inFlightValidateProductCalls.decrementAndGet();
+                responseObserver.onNext(Product.ValidateProductResponse.newBuilder()
+                        .setProductExist(productId > 0)
+                        .build());
+                responseObserver.onCompleted();
+            }, latencyMs, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void validateBasketProducts(Product.BasketValidationRequest request,
+                                           StreamObserver<Product.BasketValidationResponse> responseObserver) {
+            recordMessageSize(request.getSerializedSize());
+
+            Product.BasketValidationResponse.Builder responseBuilder = Product.BasketValidationResponse.newBuilder();
+            request.getItemsList().forEach(item -> responseBuilder.addResults(createValidationResult(item)));
+
+            Product.BasketValidationResponse response = responseBuilder.build();
+            recordMessageSize(response.getSerializedSize());
+
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void checkBasketProducts(Product.BasketValidationRequest request,
+                                        StreamObserver<Product.BasketValidationResponse> responseObserver) {
+            checkBasketProductsCalls.incrementAndGet();
+
+            Product.BasketValidationResponse.Builder responseBuilder = Product.BasketValidationResponse.newBuilder();
+            request.getItemsList().forEach(item -> responseBuilder.addResults(item.getProductId() > 0
+                    ? createValidationResult(item)
+                    : Product.ProductValidationResult.newBuilder().setProductId(item.getProductId()).build()));
+
+            responseObserver.onNext(responseBuilder.build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public StreamObserver<Product.BasketItemRequest> streamBasketProducts(
+                StreamObserver<Product.ProductValidationResult> responseObserver) {
+            return new StreamObserver<>() {
+                @Override
+                public void onNext(Product.BasketItemRequest item) {
+                    recordMessageSize(item.getSerializedSize());
+
+                    Product.ProductValidationResult result = createValidationResult(item);
+                    recordMessageSize(result.getSerializedSize());
+
+                    responseObserver.onNext(result);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onCompleted() {
+                    responseObserver.onCompleted();
+                }
+            };
+        }
+
+    }
+
+}
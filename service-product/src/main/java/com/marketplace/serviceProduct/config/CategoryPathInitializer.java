@@ -0,0 +1,49 @@
+package com.marketplace.serviceProduct.config;
+
+import com.marketplace.serviceProduct.service.cache.CategoryTree;
+import com.marketplace.serviceProduct.service.cache.CategoryTreeCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class CategoryPathInitializer implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CategoryTreeCache categoryTreeCache;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (DatabasePlatform.isPostgres(jdbcTemplate)) {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_categories_path_pattern " +
+                    "ON categories (path text_pattern_ops)");
+        }
+
+        backfillMissingPaths();
+    }
+
+    public int backfillMissingPaths() {
+        List<Long> categoryIds = jdbcTemplate.queryForList("SELECT id FROM categories WHERE path IS NULL", Long.class);
+        if (categoryIds.isEmpty()) {
+            return 0;
+        }
+
+        CategoryTree categoryTree = categoryTreeCache.get();
+        List<Object[]> batchArgs = categoryIds.stream()
+                .map(categoryTree::findById)
+                .flatMap(Optional::stream)
+                .map(node -> new Object[]{node.getPath(), node.getId()})
+                .toList();
+
+        jdbcTemplate.batchUpdate("UPDATE categories SET path = ? WHERE id = ?", batchArgs);
+
+        return batchArgs.size();
+    }
+
+}
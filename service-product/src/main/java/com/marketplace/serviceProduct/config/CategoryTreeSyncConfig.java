@@ -0,0 +1,32 @@
+package com.marketplace.serviceProduct.config;
+
+import com.marketplace.serviceProduct.service.cache.CategoryTreeCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+@Configuration
+@ConditionalOnProperty(name = "category.tree.redis-sync", havingValue = "true", matchIfMissing = true)
+public class CategoryTreeSyncConfig {
+
+    @Bean
+    public RedisMessageListenerContainer categoryTreeListenerContainer(
+            RedisConnectionFactory redisConnectionFactory,
+            CategoryTreeCache categoryTreeCache)
+    {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> categoryTreeCache.onRemoteChange(
+                        new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CategoryTreeCache.CHANGES_CHANNEL)
+        );
+        return container;
+    }
+
+}
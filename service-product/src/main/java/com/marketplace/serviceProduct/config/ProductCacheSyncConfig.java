@@ -0,0 +1,39 @@
+package com.marketplace.serviceProduct.config;
+
+import com.marketplace.serviceProduct.service.cache.ProductFacetCache;
+import com.marketplace.serviceProduct.service.cache.ProductSuggestionCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+@Configuration
+@ConditionalOnProperty(name = "product.cache.redis-sync", havingValue = "true", matchIfMissing = true)
+public class ProductCacheSyncConfig {
+
+    @Bean
+    public RedisMessageListenerContainer productCacheListenerContainer(
+            RedisConnectionFactory redisConnectionFactory,
+            ProductSuggestionCache productSuggestionCache,
+            ProductFacetCache productFacetCache)
+    {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> productSuggestionCache.onRemoteChange(
+                        new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(ProductSuggestionCache.CHANGES_CHANNEL)
+        );
+        container.addMessageListener(
+                (message, pattern) -> productFacetCache.onRemoteChange(
+                        new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(ProductFacetCache.CHANGES_CHANNEL)
+        );
+        return container;
+    }
+
+}
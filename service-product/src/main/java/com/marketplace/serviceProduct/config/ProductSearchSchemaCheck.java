@@ -0,0 +1,30 @@
+package com.marketplace.serviceProduct.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ProductSearchSchemaCheck implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!DatabasePlatform.isPostgres(jdbcTemplate)) {
+            return;
+        }
+
+        Boolean searchVectorExists = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 " +
+                "FROM information_schema.columns WHERE table_schema = current_schema() " +
+                "AND table_name = 'products' AND column_name = 'search_vector')", Boolean.class);
+        if (!Boolean.TRUE.equals(searchVectorExists)) {
+            throw new IllegalStateException(
+                    "products.search_vector is missing, apply db/product-search-vector.sql before starting.");
+        }
+    }
+
+}
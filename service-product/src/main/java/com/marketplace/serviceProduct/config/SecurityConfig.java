@@ -26,7 +26,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers(
                                 HttpMethod.GET, "/product/**",
-                                "product-photo/**")
+                                "product-photo/**",
+                                "/category/*/products")
                         .permitAll()
                         .requestMatchers(
                                 "/product/add",
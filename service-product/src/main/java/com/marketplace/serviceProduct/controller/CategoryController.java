@@ -2,7 +2,9 @@ package com.marketplace.serviceProduct.controller;
 
 import com.marketplace.serviceProduct.dto.request.AddCategoryRequest;
 import com.marketplace.serviceProduct.dto.response.CategoryResponse;
+import com.marketplace.serviceProduct.dto.response.ProductCursorPageResponse;
 import com.marketplace.serviceProduct.service.CategoryService;
+import com.marketplace.serviceProduct.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final ProductService productService;
 
     @PostMapping("/add")
     public ResponseEntity<?> addCategory(@RequestBody AddCategoryRequest request) {
@@ -27,6 +30,22 @@ public class CategoryController {
         }
     }
 
+    @GetMapping("/{categoryId}/products")
+    public ResponseEntity<?> getCategoryProducts(
+            @PathVariable("categoryId") Long categoryId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size)
+    {
+        try {
+            ProductCursorPageResponse response = productService.getCategoryProducts(categoryId, cursor, size);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(e.getMessage());
+        }
+    }
+
     @DeleteMapping("/delete")
     public ResponseEntity<?> deleteCategory(@RequestParam Long categoryId) {
         try {
@@ -1,8 +1,13 @@
 package com.marketplace.serviceProduct.controller;
 
 import com.marketplace.serviceProduct.dto.request.AddProductRequest;
+import com.marketplace.serviceProduct.dto.request.ProductFacetRequest;
+import com.marketplace.serviceProduct.dto.request.ProductSearchRequest;
+import com.marketplace.serviceProduct.dto.response.ProductCursorPageResponse;
 import com.marketplace.serviceProduct.dto.response.ProductDetailsResponse;
+import com.marketplace.serviceProduct.dto.response.ProductFacetResponse;
 import com.marketplace.serviceProduct.dto.response.ProductShortResponse;
+import com.marketplace.serviceProduct.dto.response.SuggestionResponse;
 import com.marketplace.serviceProduct.exception.HttpServletRequestException;
 import com.marketplace.serviceProduct.service.jwt.JwtService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -58,6 +63,90 @@ public class ProductController {
         return ResponseEntity.ok(responses);
     }
 
+    @GetMapping("/list")
+    public ResponseEntity<?> getProductList(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size)
+    {
+        try {
+            ProductCursorPageResponse response = productService.getProductList(cursor, size);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchProducts(
+            @RequestParam(name = "q") String query,
+            @RequestParam(name = "categoryId", required = false) Long categoryId,
+            @RequestParam(name = "sellerId", required = false) Long sellerId,
+            @RequestParam(name = "minPrice", required = false) Integer minPrice,
+            @RequestParam(name = "maxPrice", required = false) Integer maxPrice,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size)
+    {
+        try {
+            ProductSearchRequest request = ProductSearchRequest.builder()
+                    .query(query)
+                    .categoryId(categoryId)
+                    .sellerId(sellerId)
+                    .minPrice(minPrice)
+                    .maxPrice(maxPrice)
+                    .build();
+
+            ProductCursorPageResponse response = productService.searchProducts(request, cursor, size);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<?> getFacetedProducts(
+            @RequestParam(name = "categoryId", required = false) Long categoryId,
+            @RequestParam(name = "priceBucket", required = false) List<String> priceBuckets,
+            @RequestParam(name = "minRating", required = false) Integer minRating,
+            @RequestParam(name = "inStock", defaultValue = "false") boolean inStockOnly,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size)
+    {
+        try {
+            ProductFacetRequest request = ProductFacetRequest.builder()
+                    .categoryId(categoryId)
+                    .priceBuckets(priceBuckets)
+                    .minRating(minRating)
+                    .inStockOnly(inStockOnly)
+                    .build();
+
+            ProductFacetResponse response = productService.getFacetedProducts(request, cursor, size);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggest(
+            @RequestParam(name = "q", defaultValue = "") String query,
+            @RequestParam(name = "limit", defaultValue = "10") int limit)
+    {
+        try {
+            SuggestionResponse response = productService.suggest(query, limit);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(e.getMessage());
+        }
+    }
+
     @GetMapping("/{productId}")
     public ResponseEntity<?> getProductDetail(@PathVariable("productId") Long productId) {
         try {
@@ -0,0 +1,4 @@
+package com.marketplace.serviceProduct.dto.projection;
+
+public record CategoryRow(Long id, String name, Long parentId) {
+}
@@ -0,0 +1,4 @@
+package com.marketplace.serviceProduct.dto.projection;
+
+public record ProductCategoryLink(Long productId, Long categoryId) {
+}
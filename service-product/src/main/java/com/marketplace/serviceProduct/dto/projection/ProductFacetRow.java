@@ -0,0 +1,4 @@
+package com.marketplace.serviceProduct.dto.projection;
+
+public record ProductFacetRow(Long id, Integer price, Integer count, Double rating) {
+}
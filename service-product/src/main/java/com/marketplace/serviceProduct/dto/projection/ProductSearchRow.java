@@ -0,0 +1,18 @@
+package com.marketplace.serviceProduct.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ProductSearchRow implements ProductShortView {
+
+    private final Long id;
+    private final String name;
+    private final Double rating;
+    private final Integer price;
+    private final Long sellerId;
+    private final String photoUrl;
+    private final float searchRank;
+
+}
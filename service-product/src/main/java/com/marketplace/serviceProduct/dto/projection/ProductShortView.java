@@ -0,0 +1,17 @@
+package com.marketplace.serviceProduct.dto.projection;
+
+public interface ProductShortView {
+
+    Long getId();
+
+    String getName();
+
+    Double getRating();
+
+    Integer getPrice();
+
+    Long getSellerId();
+
+    String getPhotoUrl();
+
+}
@@ -0,0 +1,9 @@
+package com.marketplace.serviceProduct.dto.projection;
+
+public interface ProductStock {
+
+    Long getId();
+    Integer getPrice();
+    Integer getCount();
+
+}
@@ -0,0 +1,4 @@
+package com.marketplace.serviceProduct.dto.projection;
+
+public record ProductSuggestionRow(Long id, String name, Double rating) {
+}
@@ -0,0 +1,24 @@
+package com.marketplace.serviceProduct.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetRequest {
+
+    private Long categoryId;
+
+    private List<String> priceBuckets;
+
+    private Integer minRating;
+
+    private boolean inStockOnly;
+
+}
@@ -0,0 +1,24 @@
+package com.marketplace.serviceProduct.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchRequest {
+
+    private String query;
+
+    private Long categoryId;
+
+    private Long sellerId;
+
+    private Integer minPrice;
+
+    private Integer maxPrice;
+
+}
@@ -0,0 +1,15 @@
+package com.marketplace.serviceProduct.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ProductCursorPageResponse {
+
+    private List<ProductShortResponse> items;
+    private String nextCursor;
+
+}
@@ -0,0 +1,21 @@
+package com.marketplace.serviceProduct.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class ProductFacetResponse {
+
+    private List<ProductShortResponse> items;
+    private String nextCursor;
+    private int total;
+    private Map<Long, Integer> categoryCounts;
+    private Map<String, Integer> priceBucketCounts;
+    private Map<Integer, Integer> minRatingCounts;
+    private int inStockCount;
+
+}
@@ -0,0 +1,15 @@
+package com.marketplace.serviceProduct.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class SuggestionResponse {
+
+    private List<ProductShortResponse> products;
+    private List<CategoryResponse> categories;
+
+}
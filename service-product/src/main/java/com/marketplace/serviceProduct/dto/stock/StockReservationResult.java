@@ -0,0 +1,17 @@
+package com.marketplace.serviceProduct.dto.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StockReservationResult {
+
+    private long productId;
+    private boolean productExist;
+    private int currentPrice;
+    private int requestedCount;
+    private int availableCount;
+    private boolean reserved;
+
+}
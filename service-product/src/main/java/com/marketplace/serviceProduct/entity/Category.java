@@ -1,24 +1,30 @@
 package com.marketplace.serviceProduct.entity;
 
+import com.marketplace.serviceProduct.entity.id.PooledSequence;
 import jakarta.persistence.*;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "categories")
-@Data
+@Table(name = "categories", indexes = @Index(name = "idx_categories_path", columnList = "path"))
+@Getter
+@Setter
 public class Category {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "categories_seq")
     private Long id;
 
     @Column(nullable = false, unique = true)
     private String name;
 
-    @ManyToOne
+    @Column(length = 1024)
+    private String path;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_id")
     private Category parent;
 
@@ -0,0 +1,22 @@
+package com.marketplace.serviceProduct.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "consumed_offsets")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumedOffset {
+
+    @Id
+    @Column(name = "topic_partition")
+    private String topicPartition;
+
+    @Column(name = "last_offset", nullable = false)
+    private Long lastOffset;
+
+}
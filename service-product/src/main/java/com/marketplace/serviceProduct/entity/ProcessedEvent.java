@@ -0,0 +1,20 @@
+package com.marketplace.serviceProduct.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "processed_events", indexes = @Index(name = "idx_processed_events_processed_at", columnList = "processed_at"))
+@Data
+public class ProcessedEvent {
+
+    @Id
+    @Column(name = "event_id", length = 64)
+    private String eventId;
+
+    @Column(name = "processed_at", nullable = false)
+    private Instant processedAt;
+
+}
@@ -1,5 +1,6 @@
 package com.marketplace.serviceProduct.entity;
 
+import com.marketplace.serviceProduct.entity.id.PooledSequence;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -14,7 +15,7 @@ import java.util.Set;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "products_seq")
     private Long id;
 
     @Column(nullable = false)
@@ -46,7 +47,8 @@ public class Product {
     @JoinTable(
             name = "product_category",
             joinColumns = @JoinColumn(name = "product_id"),
-            inverseJoinColumns = @JoinColumn(name = "category_id")
+            inverseJoinColumns = @JoinColumn(name = "category_id"),
+            indexes = @Index(name = "idx_product_category_category", columnList = "category_id, product_id")
     )
     private Set<Category> categories = new HashSet<>();
 
@@ -1,17 +1,18 @@
 package com.marketplace.serviceProduct.repository;
 
+import com.marketplace.serviceProduct.dto.projection.CategoryRow;
 import com.marketplace.serviceProduct.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
-    Set<Category> findAllByIdIn(Set<Long> ids);
-    Optional<Category> findByName(String name);
+    @Query("SELECT new com.marketplace.serviceProduct.dto.projection.CategoryRow(c.id, c.name, p.id) " +
+            "FROM Category c LEFT JOIN c.parent p")
+    List<CategoryRow> findAllRows();
 
 }
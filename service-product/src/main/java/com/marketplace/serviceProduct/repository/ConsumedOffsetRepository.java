@@ -0,0 +1,18 @@
+package com.marketplace.serviceProduct.repository;
+
+import com.marketplace.serviceProduct.entity.ConsumedOffset;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ConsumedOffsetRepository extends JpaRepository<ConsumedOffset, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ConsumedOffset> findAllByTopicPartitionIn(Collection<String> topicPartitions);
+
+}
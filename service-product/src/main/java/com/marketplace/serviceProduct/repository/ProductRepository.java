@@ -1,12 +1,99 @@
 package com.marketplace.serviceProduct.repository;
 
+import com.marketplace.serviceProduct.dto.projection.ProductCategoryLink;
+import com.marketplace.serviceProduct.dto.projection.ProductFacetRow;
+import com.marketplace.serviceProduct.dto.projection.ProductShortView;
+import com.marketplace.serviceProduct.dto.projection.ProductStock;
+import com.marketplace.serviceProduct.dto.projection.ProductSuggestionRow;
 import com.marketplace.serviceProduct.entity.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    String SHORT_VIEW_SELECT = "SELECT p.id AS id, p.name AS name, p.rating AS rating, p.price AS price, " +
+            "p.seller_id AS sellerId, " +
+            "(SELECT pp.photo_url FROM product_photos pp WHERE pp.product_id = p.id LIMIT 1) AS photoUrl " +
+            "FROM products p";
+
+    Optional<ProductStock> findStockById(Long id);
+
+    List<ProductStock> findStockByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "categories")
+    Optional<Product> findWithCategoriesById(Long id);
+
+    @Query(value = SHORT_VIEW_SELECT + " ORDER BY p.id",
+            countQuery = "SELECT count(*) FROM products",
+            nativeQuery = true)
+    Page<ProductShortView> findShortViews(Pageable pageable);
+
+    @Query(value = SHORT_VIEW_SELECT + " WHERE p.id > :lastSeenId ORDER BY p.id LIMIT :limit",
+            nativeQuery = true)
+    List<ProductShortView> findShortViewsAfter(@Param("lastSeenId") Long lastSeenId, @Param("limit") int limit);
+
+    @Query(value = SHORT_VIEW_SELECT + " WHERE p.id IN (:ids) ORDER BY p.id",
+            nativeQuery = true)
+    List<ProductShortView> findShortViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = SHORT_VIEW_SELECT + " WHERE p.id > :lastSeenId AND EXISTS (" +
+            "SELECT 1 FROM product_category pc JOIN categories c ON c.id = pc.category_id " +
+            "WHERE pc.product_id = p.id AND c.path LIKE :pathPrefix) " +
+            "ORDER BY p.id LIMIT :limit",
+            nativeQuery = true)
+    List<ProductShortView> findShortViewsInCategoryPathAfter(
+            @Param("pathPrefix") String pathPrefix,
+            @Param("lastSeenId") Long lastSeenId,
+            @Param("limit") int limit);
+
+    @Query("SELECT new com.marketplace.serviceProduct.dto.projection.ProductSuggestionRow(p.id, p.name, p.rating) " +
+            "FROM Product p")
+    List<ProductSuggestionRow> findAllSuggestionRows();
+
+    @Query("SELECT new com.marketplace.serviceProduct.dto.projection.ProductSuggestionRow(p.id, p.name, p.rating) " +
+            "FROM Product p WHERE p.id IN :ids")
+    List<ProductSuggestionRow> findSuggestionRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.marketplace.serviceProduct.dto.projection.ProductFacetRow(p.id, p.price, p.count, p.rating) " +
+            "FROM Product p")
+    List<ProductFacetRow> findAllFacetRows();
+
+    @Query("SELECT new com.marketplace.serviceProduct.dto.projection.ProductFacetRow(p.id, p.price, p.count, p.rating) " +
+            "FROM Product p WHERE p.id IN :ids")
+    List<ProductFacetRow> findFacetRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.marketplace.serviceProduct.dto.projection.ProductCategoryLink(p.id, c.id) " +
+            "FROM Product p JOIN p.categories c")
+    List<ProductCategoryLink> findAllCategoryLinks();
+
+    @Query("SELECT new com.marketplace.serviceProduct.dto.projection.ProductCategoryLink(p.id, c.id) " +
+            "FROM Product p JOIN p.categories c WHERE p.id IN :productIds")
+    List<ProductCategoryLink> findCategoryLinksByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    @Query(value = "SELECT id, price, count FROM products WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    List<ProductStock> findStockForUpdateByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT p.id FROM Product p JOIN p.categories c WHERE c.id IN :categoryIds")
+    List<Long> findIdsByCategoryIdIn(@Param("categoryIds") Collection<Long> categoryIds);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.count = p.count - :count WHERE p.id = :productId AND p.count >= :count")
+    int decrementCount(@Param("productId") Long productId, @Param("count") Integer count);
 
+    @Modifying
+    @Query("UPDATE Product p SET p.count = p.count + :count WHERE p.id = :productId")
+    int incrementCount(@Param("productId") Long productId, @Param("count") Integer count);
 
 }
@@ -0,0 +1,73 @@
+package com.marketplace.serviceProduct.repository;
+
+import com.marketplace.serviceProduct.dto.projection.ProductSearchRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class ProductSearchRepository {
+
+    private static final String SEARCH_SELECT = "SELECT p.id AS id, p.name AS name, p.rating AS rating, " +
+            "p.price AS price, p.seller_id AS sellerId, " +
+            "(SELECT pp.photo_url FROM product_photos pp WHERE pp.product_id = p.id LIMIT 1) AS photoUrl, " +
+            "ts_rank_cd(p.search_vector, query) AS searchRank " +
+            "FROM products p, to_tsquery('simple', :query) query WHERE p.search_vector @@ query";
+
+    private static final RowMapper<ProductSearchRow> SEARCH_ROW_MAPPER = (rs, rowNum) -> new ProductSearchRow(
+            rs.getLong("id"),
+            rs.getString("name"),
+            rs.getObject("rating", Double.class),
+            rs.getObject("price", Integer.class),
+            rs.getObject("sellerId", Long.class),
+            rs.getString("photoUrl"),
+            rs.getFloat("searchRank"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<ProductSearchRow> search(
+            String tsQuery, String categoryPathPrefix,
+            Long sellerId, Integer minPrice, Integer maxPrice,
+            Float lastRank, Long lastSeenId, int limit)
+    {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", tsQuery)
+                .addValue("limit", limit);
+
+        StringBuilder sql = new StringBuilder(SEARCH_SELECT);
+
+        if (lastRank != null && lastSeenId != null) {
+            sql.append(" AND (ts_rank_cd(p.search_vector, query) < :lastRank " +
+                    "OR (ts_rank_cd(p.search_vector, query) = :lastRank AND p.id > :lastSeenId))");
+            params.addValue("lastRank", lastRank);
+            params.addValue("lastSeenId", lastSeenId);
+        }
+        if (sellerId != null) {
+            sql.append(" AND p.seller_id = :sellerId");
+            params.addValue("sellerId", sellerId);
+        }
+        if (minPrice != null) {
+            sql.append(" AND p.price >= :minPrice");
+            params.addValue("minPrice", minPrice);
+        }
+        if (maxPrice != null) {
+            sql.append(" AND p.price <= :maxPrice");
+            params.addValue("maxPrice", maxPrice);
+        }
+        if (categoryPathPrefix != null) {
+            sql.append(" AND EXISTS (SELECT 1 FROM product_category pc JOIN categories c ON c.id = pc.category_id " +
+                    "WHERE pc.product_id = p.id AND c.path LIKE :categoryPath)");
+            params.addValue("categoryPath", categoryPathPrefix);
+        }
+
+        sql.append(" ORDER BY searchRank DESC, p.id LIMIT :limit");
+
+        return jdbcTemplate.query(sql.toString(), params, SEARCH_ROW_MAPPER);
+    }
+
+}
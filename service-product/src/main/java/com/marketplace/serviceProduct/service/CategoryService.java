@@ -6,42 +6,66 @@ import com.marketplace.serviceProduct.entity.Category;
 import com.marketplace.serviceProduct.exception.CategoryException;
 import lombok.RequiredArgsConstructor;
 import com.marketplace.serviceProduct.repository.CategoryRepository;
+import com.marketplace.serviceProduct.repository.ProductRepository;
+import com.marketplace.serviceProduct.service.cache.CategoryNode;
+import com.marketplace.serviceProduct.service.cache.CategoryTree;
+import com.marketplace.serviceProduct.service.cache.CategoryTreeCache;
+import com.marketplace.serviceProduct.service.cache.ProductDetailsCache;
+import com.marketplace.serviceProduct.service.cache.ProductFacetCache;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final ProductDetailsCache productDetailsCache;
+    private final CategoryTreeCache categoryTreeCache;
+    private final ProductFacetCache productFacetCache;
 
     @Transactional
     public CategoryResponse addCategory(AddCategoryRequest request) {
-        Optional<Category> category = categoryRepository.findByName(request.getName().toLowerCase());
-        if (category.isPresent()) {
+        CategoryTree categoryTree = categoryTreeCache.get();
+
+        String name = request.getName().toLowerCase();
+        if (categoryTree.findByName(name).isPresent()) {
             throw new CategoryException("Category already exists.");
         }
 
         Category newCategory = new Category();
-        newCategory.setName(request.getName().toLowerCase());
+        newCategory.setName(name);
 
+        CategoryNode parentNode = null;
         Long parentId = request.getParentId();
         if (parentId != null) {
-            Category parentCategory = findCategoryById(parentId);
-            newCategory.setParent(parentCategory);
+            parentNode = categoryTree.findById(parentId)
+                    .orElseThrow(() -> new CategoryException("Category not found."));
+            newCategory.setParent(categoryRepository.getReferenceById(parentId));
         }
         categoryRepository.save(newCategory);
+        newCategory.setPath((parentNode != null ? parentNode.getPath() : "/") + newCategory.getId() + "/");
+        categoryTreeCache.refreshAfterCommit();
 
-        return buildCategoryResponse(newCategory);
+        return buildCategoryResponse(newCategory, parentNode);
     }
 
     @Transactional
     public void deleteCategory(Long categoryId) {
         Category category = findCategoryById(categoryId);
 
+        List<Long> subtreeIds = categoryTreeCache.get().getSubtreeIds(categoryId);
+        List<Long> affectedProductIds = subtreeIds.isEmpty()
+                ? List.of()
+                : productRepository.findIdsByCategoryIdIn(subtreeIds);
+
         categoryRepository.delete(category);
+        productDetailsCache.evictAll(affectedProductIds);
+        categoryTreeCache.refreshAfterCommit();
+        productFacetCache.invalidateAfterCommit();
     }
 
     private Category findCategoryById(Long id) {
@@ -49,12 +73,12 @@ public class CategoryService {
                 .orElseThrow(() -> new CategoryException("Category not found."));
     }
 
-    private CategoryResponse buildCategoryResponse(Category category) {
+    private CategoryResponse buildCategoryResponse(Category category, CategoryNode parentNode) {
         return CategoryResponse.builder()
                 .id(category.getId())
                 .name(category.getName())
-                .parentId(category.getParent() != null ? category.getParent().getId() : null)
-                .parentName(category.getParent() != null ? category.getParent().getName() : null)
+                .parentId(parentNode != null ? parentNode.getId() : null)
+                .parentName(parentNode != null ? parentNode.getName() : null)
                 .build();
     }
 
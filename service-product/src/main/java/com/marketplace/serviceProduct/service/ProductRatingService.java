@@ -0,0 +1,117 @@
+package com.marketplace.serviceProduct.service;
+
+import com.marketplace.events.Events.ProductEvent;
+import com.marketplace.serviceProduct.dto.projection.ProductSuggestionRow;
+import com.marketplace.serviceProduct.entity.ConsumedOffset;
+import com.marketplace.serviceProduct.repository.ConsumedOffsetRepository;
+import com.marketplace.serviceProduct.repository.ProductRepository;
+import com.marketplace.serviceProduct.service.cache.ProductDetailsCache;
+import com.marketplace.serviceProduct.service.cache.ProductFacetCache;
+import com.marketplace.serviceProduct.service.cache.ProductSuggestionCache;
+import com.marketplace.serviceProduct.service.handler.ProcessedEventStore;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ProductRatingService {
+
+    private static final String ADD_RATINGS_SQL = "UPDATE products SET " +
+            "rating_count = COALESCE(rating_count, 0) + ?, " +
+            "total_rating = COALESCE(total_rating, 0) + ?, " +
+            "rating = CAST(COALESCE(total_rating, 0) + ? AS DOUBLE PRECISION) / (COALESCE(rating_count, 0) + ?) " +
+            "WHERE id = ?";
+    private static final String INSERT_OFFSET_SQL = "INSERT INTO consumed_offsets (topic_partition, last_offset) " +
+            "VALUES (?, -1) ON CONFLICT DO NOTHING";
+
+    private final ProductRepository productRepository;
+    private final ConsumedOffsetRepository consumedOffsetRepository;
+    private final ProcessedEventStore processedEventStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductDetailsCache productDetailsCache;
+    private final ProductSuggestionCache productSuggestionCache;
+    private final ProductFacetCache productFacetCache;
+
+    // Offsets are stored in the same transaction, so records redelivered after a failed commit are skipped.
+    @Transactional
+    public int applyRatings(List<ConsumerRecord<String, ProductEvent>> records) {
+        if (records.isEmpty()) {
+            return 0;
+        }
+
+        // The row must exist before it is locked, otherwise a first batch of a partition is not serialized.
+        Set<String> topicPartitions = records.stream()
+                .map(this::topicPartition)
+                .collect(Collectors.toCollection(TreeSet::new));
+        jdbcTemplate.batchUpdate(INSERT_OFFSET_SQL, topicPartitions.stream()
+                .map(topicPartition -> new Object[]{topicPartition})
+                .toList());
+
+        Map<String, ConsumedOffset> offsets = consumedOffsetRepository.findAllByTopicPartitionIn(topicPartitions)
+                .stream()
+                .collect(Collectors.toMap(ConsumedOffset::getTopicPartition, Function.identity()));
+
+        List<ProductEvent> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, ProductEvent> record : records) {
+            ConsumedOffset offset = offsets.get(topicPartition(record));
+            if (record.offset() > offset.getLastOffset()) {
+                offset.setLastOffset(record.offset());
+                if (record.value() != null) {
+                    events.add(record.value());
+                }
+            }
+        }
+
+        Set<String> claimedEventIds = new HashSet<>(processedEventStore.claim(events.stream()
+                .map(ProductEvent::getEventId)
+                .filter(eventId -> !eventId.isEmpty())
+                .toList()));
+
+        // Sorted by id so concurrent batches lock product rows in the same order.
+        Map<Long, int[]> ratingDeltas = new TreeMap<>();
+        for (ProductEvent event : events) {
+            if (!event.getEventId().isEmpty() && !claimedEventIds.remove(event.getEventId())) {
+                continue;
+            }
+            if (event.getRating() < 1 || event.getRating() > 5) {
+                continue;
+            }
+
+            int[] delta = ratingDeltas.computeIfAbsent(event.getId(), id -> new int[2]);
+            delta[0]++;
+            delta[1] += event.getRating();
+        }
+
+        if (!ratingDeltas.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_RATINGS_SQL, ratingDeltas.entrySet().stream()
+                    .map(entry -> new Object[]{
+                            entry.getValue()[0], entry.getValue()[1],
+                            entry.getValue()[1], entry.getValue()[0],
+                            entry.getKey()})
+                    .toList());
+
+            List<ProductSuggestionRow> updatedRows = productRepository.findSuggestionRowsByIdIn(ratingDeltas.keySet());
+            productDetailsCache.evictAll(List.copyOf(ratingDeltas.keySet()));
+            productSuggestionCache.upsertAfterCommit(updatedRows);
+            productFacetCache.updateRatingsAfterCommit(updatedRows.stream()
+                    .filter(row -> row.rating() != null)
+                    .collect(Collectors.toMap(ProductSuggestionRow::id, ProductSuggestionRow::rating)));
+        }
+
+        consumedOffsetRepository.saveAll(offsets.values());
+
+        return ratingDeltas.size();
+    }
+
+    private String topicPartition(ConsumerRecord<String, ProductEvent> record) {
+        return record.topic() + "-" + record.partition();
+    }
+
+}
@@ -1,12 +1,32 @@
 package com.marketplace.serviceProduct.service;
 
+import com.marketplace.serviceProduct.dto.projection.ProductFacetRow;
+import com.marketplace.serviceProduct.dto.projection.ProductSearchRow;
+import com.marketplace.serviceProduct.dto.projection.ProductShortView;
+import com.marketplace.serviceProduct.dto.projection.ProductStock;
+import com.marketplace.serviceProduct.dto.projection.ProductSuggestionRow;
+import com.marketplace.serviceProduct.dto.response.CategoryResponse;
+import com.marketplace.serviceProduct.dto.response.ProductCursorPageResponse;
 import com.marketplace.serviceProduct.dto.response.ProductDetailsResponse;
+import com.marketplace.serviceProduct.dto.response.ProductFacetResponse;
 import com.marketplace.serviceProduct.dto.response.ProductShortResponse;
+import com.marketplace.serviceProduct.dto.response.SuggestionResponse;
 import com.marketplace.serviceProduct.entity.Category;
 import com.marketplace.serviceProduct.entity.Product;
 import com.marketplace.serviceProduct.exception.CategoryException;
 import com.marketplace.serviceProduct.exception.ProductException;
+import com.marketplace.serviceProduct.dto.request.ProductFacetRequest;
+import com.marketplace.serviceProduct.dto.request.ProductSearchRequest;
 import com.marketplace.serviceProduct.repository.CategoryRepository;
+import com.marketplace.serviceProduct.repository.ProductSearchRepository;
+import com.marketplace.serviceProduct.service.cache.CategoryNode;
+import com.marketplace.serviceProduct.service.cache.CategoryTree;
+import com.marketplace.serviceProduct.service.cache.CategoryTreeCache;
+import com.marketplace.serviceProduct.service.cache.ProductDetailsCache;
+import com.marketplace.serviceProduct.service.cache.ProductFacetCache;
+import com.marketplace.serviceProduct.service.cache.ProductFacetIndex;
+import com.marketplace.serviceProduct.service.cache.ProductFacetResult;
+import com.marketplace.serviceProduct.service.cache.ProductSuggestionCache;
 import lombok.RequiredArgsConstructor;
 import com.marketplace.serviceProduct.dto.request.AddProductRequest;
 import com.marketplace.serviceProduct.repository.ProductRepository;
@@ -14,18 +34,32 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.security.access.AccessDeniedException;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_TERMS = 8;
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final Pattern SEARCH_TERM_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
     private final ProductRepository productRepository;
+    private final ProductSearchRepository productSearchRepository;
     private final CategoryRepository categoryRepository;
+    private final ProductDetailsCache productDetailsCache;
+    private final CategoryTreeCache categoryTreeCache;
+    private final ProductSuggestionCache productSuggestionCache;
+    private final ProductFacetCache productFacetCache;
+    private final TransactionTemplate readOnlyTransactionTemplate;
 
     @Transactional
     public List<ProductDetailsResponse> addProducts(Long sellerId, String sellerName, List<AddProductRequest> requests) {
@@ -33,26 +67,36 @@ public class ProductService {
                 .flatMap(request -> request.getCategoryIds().stream())
                 .collect(Collectors.toSet());
 
-        Map<Long, Category> categoryMap = categoryRepository.findAllByIdIn(allCategoryIds).stream()
-                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        validateCategoriesExist(allCategoryIds, categoryTreeCache.get());
 
-        validateCategoriesExist(allCategoryIds, categoryMap.keySet());
+        Map<Long, Category> categoryMap = allCategoryIds.stream()
+                .collect(Collectors.toMap(Function.identity(), categoryRepository::getReferenceById));
 
         List<Product> newProducts = requests.stream()
                 .map(request -> createNewProduct(sellerId, sellerName, request, categoryMap))
                 .toList();
 
         List<Product> savedProducts = productRepository.saveAll(newProducts);
+        productSuggestionCache.upsertAfterCommit(savedProducts.stream()
+                .map(this::buildSuggestionRow)
+                .toList());
+        productFacetCache.addAllAfterCommit(
+                savedProducts.stream()
+                        .map(product -> new ProductFacetRow(
+                                product.getId(), product.getPrice(), product.getCount(), product.getRating()))
+                        .toList(),
+                savedProducts.stream()
+                        .collect(Collectors.toMap(Product::getId, product -> product.getCategories().stream()
+                                .map(Category::getId)
+                                .toList())));
 
         return savedProducts.stream()
                 .map(this::buildProductDetailsResponse)
                 .toList();
     }
 
-    private void validateCategoriesExist(Set<Long> requestedIds, Set<Long> existingIds) {
-        Set<Long> missingIds = requestedIds.stream()
-                .filter(id -> !existingIds.contains(id))
-                .collect(Collectors.toSet());
+    private void validateCategoriesExist(Set<Long> requestedIds, CategoryTree categoryTree) {
+        Set<Long> missingIds = categoryTree.findMissingIds(requestedIds);
 
         if (!missingIds.isEmpty()) {
             throw new CategoryException("Categories not found: " + missingIds);
@@ -85,30 +129,276 @@ public class ProductService {
                 .orElseThrow(() -> new ProductException("Product not found."));
     }
 
+    public boolean productExists(Long productId) {
+        return productRepository.existsById(productId);
+    }
+
+    public Map<Long, ProductStock> findStocks(Collection<Long> productIds) {
+        return productRepository.findStockByIdIn(productIds).stream()
+                .collect(Collectors.toMap(ProductStock::getId, Function.identity()));
+    }
+
     public Page<ProductShortResponse> getProductShort(Pageable pageable) {
-        Page<Product> products = productRepository.findAll(pageable);
+        Page<ProductShortView> products = productRepository.findShortViews(pageable);
 
         return products.map(this::buildProductShortResponse);
     }
 
-    private ProductShortResponse buildProductShortResponse(Product product) {
+    public ProductCursorPageResponse getProductList(String cursor, int size) {
+        validatePageSize(size);
+
+        List<ProductShortView> products = productRepository.findShortViewsAfter(decodeCursor(cursor), size + 1);
+
+        return buildCursorPage(products, size);
+    }
+
+    public ProductCursorPageResponse getCategoryProducts(Long categoryId, String cursor, int size) {
+        validatePageSize(size);
+
+        CategoryNode category = categoryTreeCache.get().findById(categoryId)
+                .orElseThrow(() -> new CategoryException("Category not found."));
+
+        List<ProductShortView> products = productRepository.findShortViewsInCategoryPathAfter(
+                category.getPath() + "%", decodeCursor(cursor), size + 1);
+
+        return buildCursorPage(products, size);
+    }
+
+    public ProductCursorPageResponse searchProducts(ProductSearchRequest request, String cursor, int size) {
+        validatePageSize(size);
+
+        if (request.getMinPrice() != null && request.getMaxPrice() != null
+                && request.getMinPrice() > request.getMaxPrice()) {
+            throw new ProductException("Invalid price range.");
+        }
+
+        String tsQuery = buildPrefixTsQuery(request.getQuery());
+        SearchCursor after = decodeSearchCursor(cursor);
+
+        String categoryPathPrefix = null;
+        if (request.getCategoryId() != null) {
+            CategoryNode category = categoryTreeCache.get().findById(request.getCategoryId())
+                    .orElseThrow(() -> new CategoryException("Category not found."));
+            categoryPathPrefix = category.getPath() + "%";
+        }
+
+        List<ProductSearchRow> products = productSearchRepository.search(
+                tsQuery, categoryPathPrefix,
+                request.getSellerId(), request.getMinPrice(), request.getMaxPrice(),
+                after != null ? after.rank() : null, after != null ? after.id() : null, size + 1);
+
+        boolean hasNext = products.size() > size;
+        List<ProductSearchRow> page = products.subList(0, Math.min(size, products.size()));
+
+        return ProductCursorPageResponse.builder()
+                .items(page.stream()
+                        .map(this::buildProductShortResponse)
+                        .toList())
+                .nextCursor(hasNext ? encodeSearchCursor(page.get(page.size() - 1)) : null)
+                .build();
+    }
+
+    private String buildPrefixTsQuery(String query) {
+        String tsQuery = query == null ? "" : SEARCH_TERM_SEPARATOR.splitAsStream(query.toLowerCase())
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_SEARCH_TERMS)
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+
+        if (tsQuery.isEmpty()) {
+            throw new ProductException("Search query must not be blank.");
+        }
+
+        return tsQuery;
+    }
+
+    public ProductFacetResponse getFacetedProducts(ProductFacetRequest request, String cursor, int size) {
+        validatePageSize(size);
+
+        if (request.getMinRating() != null
+                && (request.getMinRating() < 1 || request.getMinRating() > ProductFacetIndex.MAX_RATING)) {
+            throw new ProductException("Minimal rating must be between 1 and " + ProductFacetIndex.MAX_RATING + ".");
+        }
+
+        CategoryTree categoryTree = categoryTreeCache.get();
+        if (request.getCategoryId() != null && categoryTree.findById(request.getCategoryId()).isEmpty()) {
+            throw new CategoryException("Category not found.");
+        }
+
+        ProductFacetIndex facetIndex = productFacetCache.get();
+        List<String> priceBucketLabels = facetIndex.getPriceBucketLabels();
+
+        Set<Integer> priceBucketIndexes = new HashSet<>();
+        for (String priceBucket : Optional.ofNullable(request.getPriceBuckets()).orElse(List.of())) {
+            int bucketIndex = priceBucketLabels.indexOf(priceBucket);
+            if (bucketIndex < 0) {
+                throw new ProductException("Unknown price bucket: " + priceBucket);
+            }
+            priceBucketIndexes.add(bucketIndex);
+        }
+
+        ProductFacetResult result = facetIndex.search(
+                categoryTree, request.getCategoryId(),
+                priceBucketIndexes, request.getMinRating(), request.isInStockOnly(),
+                decodeCursor(cursor), size);
+
+        List<ProductShortResponse> items = result.getProductIds().isEmpty()
+                ? List.of()
+                : productRepository.findShortViewsByIdIn(result.getProductIds()).stream()
+                        .map(this::buildProductShortResponse)
+                        .toList();
+
+        Map<String, Integer> priceBucketCounts = new LinkedHashMap<>();
+        for (int bucket = 0; bucket < priceBucketLabels.size(); bucket++) {
+            priceBucketCounts.put(priceBucketLabels.get(bucket), result.getPriceBucketCounts()[bucket]);
+        }
+
+        Map<Integer, Integer> minRatingCounts = new LinkedHashMap<>();
+        for (int rating = ProductFacetIndex.MAX_RATING; rating >= 1; rating--) {
+            minRatingCounts.put(rating, result.getMinRatingCounts()[rating]);
+        }
+
+        return ProductFacetResponse.builder()
+                .items(items)
+                .nextCursor(result.isHasNext()
+                        ? encodeCursor(result.getProductIds().get(result.getProductIds().size() - 1))
+                        : null)
+                .total(result.getTotal())
+                .categoryCounts(result.getCategoryCounts())
+                .priceBucketCounts(priceBucketCounts)
+                .minRatingCounts(minRatingCounts)
+                .inStockCount(result.getInStockCount())
+                .build();
+    }
+
+    public SuggestionResponse suggest(String query, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new ProductException("Limit must be between 1 and " + MAX_SUGGESTIONS + ".");
+        }
+
+        String normalizedQuery = query == null ? "" : query.trim().toLowerCase();
+        if (normalizedQuery.isEmpty()) {
+            return SuggestionResponse.builder()
+                    .products(List.of())
+                    .categories(List.of())
+                    .build();
+        }
+
+        CategoryTree categoryTree = categoryTreeCache.get();
+
+        List<ProductShortResponse> products = productSuggestionCache.suggest(normalizedQuery, limit).stream()
+                .map(row -> ProductShortResponse.builder()
+                        .id(row.id())
+                        .name(row.name())
+                        .rating(row.rating())
+                        .build())
+                .toList();
+
+        List<CategoryResponse> categories = categoryTree.findByNamePrefix(normalizedQuery, limit).stream()
+                .map(node -> CategoryResponse.builder()
+                        .id(node.getId())
+                        .name(node.getName())
+                        .parentId(node.getParentId())
+                        .parentName(node.getParentId() != null
+                                ? categoryTree.findById(node.getParentId()).map(CategoryNode::getName).orElse(null)
+                                : null)
+                        .build())
+                .toList();
+
+        return SuggestionResponse.builder()
+                .products(products)
+                .categories(categories)
+                .build();
+    }
+
+    private ProductSuggestionRow buildSuggestionRow(Product product) {
+        return new ProductSuggestionRow(product.getId(), product.getName(), product.getRating());
+    }
+
+    private void validatePageSize(int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new ProductException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE + ".");
+        }
+    }
+
+    private ProductCursorPageResponse buildCursorPage(List<ProductShortView> products, int size) {
+        boolean hasNext = products.size() > size;
+        List<ProductShortResponse> items = products.stream()
+                .limit(size)
+                .map(this::buildProductShortResponse)
+                .toList();
+
+        return ProductCursorPageResponse.builder()
+                .items(items)
+                .nextCursor(hasNext ? encodeCursor(items.get(items.size() - 1).getId()) : null)
+                .build();
+    }
+
+    private String encodeCursor(Long lastSeenId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(lastSeenId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new ProductException("Invalid cursor.");
+        }
+    }
+
+    private String encodeSearchCursor(ProductSearchRow lastSeen) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((lastSeen.getSearchRank() + ":" + lastSeen.getId()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private SearchCursor decodeSearchCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 2);
+            if (parts.length != 2) {
+                throw new ProductException("Invalid cursor.");
+            }
+
+            return new SearchCursor(Float.parseFloat(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new ProductException("Invalid cursor.");
+        }
+    }
+
+    private ProductShortResponse buildProductShortResponse(ProductShortView product) {
         return ProductShortResponse.builder()
                 .id(product.getId())
                 .name(product.getName())
                 .rating(product.getRating())
                 .price(product.getPrice())
-                .photoUrl(!product.getUrls().isEmpty() ? product.getUrls().get(0) : null)
+                .photoUrl(product.getPhotoUrl())
                 .sellerId(product.getSellerId())
                 .build();
     }
 
     public ProductDetailsResponse getProductDetail(Long productId) {
-        Product product = findProductById(productId);
+        return productDetailsCache.getOrLoad(productId, () ->
+                readOnlyTransactionTemplate.execute(status -> loadProductDetail(productId)));
+    }
+
+    private ProductDetailsResponse loadProductDetail(Long productId) {
+        Product product = productRepository.findWithCategoriesById(productId)
+                .orElseThrow(() -> new ProductException("Product not found."));
 
         return buildProductDetailsResponse(product);
     }
 
     private ProductDetailsResponse buildProductDetailsResponse(Product product) {
+        CategoryTree categoryTree = categoryTreeCache.get();
+
         return  ProductDetailsResponse.builder()
                 .id(product.getId())
                 .name(product.getName())
@@ -118,11 +408,13 @@ public class ProductService {
                         .map(Category::getId)
                         .collect(Collectors.toSet()))
                 .categoryNames(product.getCategories().stream()
-                        .map(Category::getName)
+                        .map(category -> categoryTree.findById(category.getId())
+                                .map(CategoryNode::getName)
+                                .orElseGet(category::getName))
                         .collect(Collectors.toSet()))
                 .sellerId(product.getSellerId())
                 .sellerName(product.getSellerName())
-                .photoUrls(product.getUrls())
+                .photoUrls(new ArrayList<>(product.getUrls()))
                 .build();
     }
 
@@ -140,25 +432,10 @@ public class ProductService {
         product.getUrls().addAll(photoUrls);
 
         productRepository.save(product);
+        productDetailsCache.evict(productId);
     }
 
-    @Transactional
-    public void changeProductRating(Long productId, Integer rating) {
-        if (rating < 1 || rating > 5) {
-            throw new ProductException("Illegal rating.");
-        }
-
-        Product product = findProductById(productId);
-
-        int newRatingCount = (product.getRatingCount() != null ? product.getRatingCount() : 0) + 1;
-        int newTotalRating = (product.getTotalRating() != null ? product.getTotalRating() : 0) + rating;
-        double newRating = (double) newTotalRating / newRatingCount;
-
-        product.setRatingCount(newRatingCount);
-        product.setTotalRating(newTotalRating);
-        product.setRating(newRating);
-
-        productRepository.save(product);
+    private record SearchCursor(float rank, long id) {
     }
 
 }
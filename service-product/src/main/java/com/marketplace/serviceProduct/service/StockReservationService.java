@@ -0,0 +1,129 @@
+package com.marketplace.serviceProduct.service;
+
+import com.marketplace.serviceProduct.dto.projection.ProductStock;
+import com.marketplace.serviceProduct.dto.stock.StockReservationResult;
+import com.marketplace.serviceProduct.repository.ProductRepository;
+import com.marketplace.serviceProduct.service.cache.ProductDetailsCache;
+import com.marketplace.serviceProduct.service.cache.ProductFacetCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class StockReservationService {
+
+    private static final String DECREMENT_COUNT_SQL =
+            "UPDATE products SET count = count - ? WHERE id = ? AND count >= ?";
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductDetailsCache productDetailsCache;
+    private final ProductFacetCache productFacetCache;
+
+    @Transactional
+    public StockReservationResult reserve(Long productId, int requestedCount) {
+        int updatedRows = requestedCount > 0
+                ? productRepository.decrementCount(productId, requestedCount)
+                : 0;
+
+        Optional<ProductStock> stock = productRepository.findStockById(productId);
+        if (stock.isEmpty()) {
+            return new StockReservationResult(productId, false, 0, requestedCount, 0, false);
+        }
+
+        if (updatedRows == 1) {
+            productDetailsCache.evict(productId);
+            productFacetCache.updateStockAfterCommit(Map.of(productId, stock.get().getCount()));
+        }
+
+        return new StockReservationResult(
+                productId,
+                true,
+                stock.get().getPrice(),
+                requestedCount,
+                stock.get().getCount(),
+                updatedRows == 1
+        );
+    }
+
+    @Transactional
+    public Map<Long, StockReservationResult> reserveAll(Map<Long, Integer> requestedCounts) {
+        if (requestedCounts.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, ProductStock> stocks = productRepository.findStockForUpdateByIdIn(requestedCounts.keySet()).stream()
+                .collect(Collectors.toMap(ProductStock::getId, Function.identity()));
+
+        Map<Long, StockReservationResult> results = new LinkedHashMap<>();
+        List<Long> reservedProductIds = new ArrayList<>();
+        List<Object[]> batchArgs = new ArrayList<>();
+
+        requestedCounts.forEach((productId, requestedCount) -> {
+            ProductStock stock = stocks.get(productId);
+            if (stock == null) {
+                results.put(productId, new StockReservationResult(productId, false, 0, requestedCount, 0, false));
+                return;
+            }
+
+            boolean sufficient = requestedCount > 0 && requestedCount <= stock.getCount();
+            int availableCount = sufficient ? stock.getCount() - requestedCount : stock.getCount();
+
+            if (sufficient) {
+                reservedProductIds.add(productId);
+                batchArgs.add(new Object[]{requestedCount, productId, requestedCount});
+            }
+
+            results.put(productId, new StockReservationResult(
+                    productId, true, stock.getPrice(), requestedCount, availableCount, sufficient));
+        });
+
+        if (!batchArgs.isEmpty()) {
+            int[] updatedRows = jdbcTemplate.batchUpdate(DECREMENT_COUNT_SQL, batchArgs);
+
+            for (int i = 0; i < updatedRows.length; i++) {
+                if (updatedRows[i] == 0) {
+                    StockReservationResult result = results.get(reservedProductIds.get(i));
+                    result.setAvailableCount(result.getAvailableCount() + result.getRequestedCount());
+                    result.setReserved(false);
+                }
+            }
+        }
+
+        List<StockReservationResult> reserved = results.values().stream()
+                .filter(StockReservationResult::isReserved)
+                .toList();
+
+        productDetailsCache.evictAll(reserved.stream()
+                .map(StockReservationResult::getProductId)
+                .toList());
+        productFacetCache.updateStockAfterCommit(reserved.stream()
+                .collect(Collectors.toMap(
+                        StockReservationResult::getProductId, StockReservationResult::getAvailableCount)));
+
+        return results;
+    }
+
+    @Transactional
+    public boolean release(Long productId, int count) {
+        if (count <= 0) {
+            return false;
+        }
+
+        boolean released = productRepository.incrementCount(productId, count) == 1;
+        if (released) {
+            productDetailsCache.evict(productId);
+            productRepository.findStockById(productId).ifPresent(stock ->
+                    productFacetCache.updateStockAfterCommit(Map.of(productId, stock.getCount())));
+        }
+
+        return released;
+    }
+
+}
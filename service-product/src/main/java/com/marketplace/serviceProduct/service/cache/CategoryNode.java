@@ -0,0 +1,21 @@
+package com.marketplace.serviceProduct.service.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Set;
+
+@Getter
+@AllArgsConstructor
+public class CategoryNode {
+
+    private final Long id;
+    private final String name;
+    private final Long parentId;
+    private final String path;
+    private final List<Long> ancestorIds;
+    private final List<Long> childIds;
+    private final Set<Long> descendantIds;
+
+}
@@ -0,0 +1,129 @@
+package com.marketplace.serviceProduct.service.cache;
+
+import com.marketplace.serviceProduct.dto.projection.CategoryRow;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class CategoryTree {
+
+    private final Map<Long, CategoryNode> nodesById;
+    private final NavigableMap<String, CategoryNode> nodesByName;
+    private final List<Long> rootIds;
+
+    private CategoryTree(Map<Long, CategoryNode> nodesById) {
+        NavigableMap<String, CategoryNode> nodesByName = new TreeMap<>();
+        nodesById.values().forEach(node -> nodesByName.putIfAbsent(node.getName(), node));
+
+        this.nodesById = Collections.unmodifiableMap(nodesById);
+        this.nodesByName = Collections.unmodifiableNavigableMap(nodesByName);
+        this.rootIds = nodesById.values().stream()
+                .filter(node -> node.getAncestorIds().isEmpty())
+                .map(CategoryNode::getId)
+                .sorted()
+                .toList();
+    }
+
+    public static CategoryTree build(Collection<CategoryRow> rows) {
+        Map<Long, CategoryRow> rowsById = rows.stream()
+                .collect(Collectors.toMap(CategoryRow::id, Function.identity()));
+
+        Map<Long, List<Long>> childIdsByParent = new HashMap<>();
+        rows.stream()
+                .filter(row -> row.parentId() != null && rowsById.containsKey(row.parentId()))
+                .sorted(Comparator.comparing(CategoryRow::id))
+                .forEach(row -> childIdsByParent.computeIfAbsent(row.parentId(), id -> new ArrayList<>()).add(row.id()));
+
+        Map<Long, CategoryNode> nodesById = new HashMap<>();
+        rowsById.values().forEach(row -> {
+            List<Long> ancestorIds = collectAncestorIds(row, rowsById);
+
+            nodesById.put(row.id(), new CategoryNode(
+                    row.id(),
+                    row.name(),
+                    row.parentId(),
+                    buildPath(ancestorIds, row.id()),
+                    List.copyOf(ancestorIds),
+                    List.copyOf(childIdsByParent.getOrDefault(row.id(), List.of())),
+                    Set.copyOf(collectDescendantIds(row.id(), childIdsByParent))
+            ));
+        });
+
+        return new CategoryTree(nodesById);
+    }
+
+    private static String buildPath(List<Long> ancestorIds, Long id) {
+        StringBuilder path = new StringBuilder("/");
+        ancestorIds.forEach(ancestorId -> path.append(ancestorId).append('/'));
+        return path.append(id).append('/').toString();
+    }
+
+    private static List<Long> collectAncestorIds(CategoryRow row, Map<Long, CategoryRow> rowsById) {
+        LinkedList<Long> ancestorIds = new LinkedList<>();
+        Set<Long> visited = new HashSet<>(Set.of(row.id()));
+
+        CategoryRow parent = rowsById.get(row.parentId());
+        while (parent != null && visited.add(parent.id())) {
+            ancestorIds.addFirst(parent.id());
+            parent = rowsById.get(parent.parentId());
+        }
+
+        return ancestorIds;
+    }
+
+    private static Set<Long> collectDescendantIds(Long id, Map<Long, List<Long>> childIdsByParent) {
+        Set<Long> descendantIds = new HashSet<>();
+        Deque<Long> pending = new ArrayDeque<>(childIdsByParent.getOrDefault(id, List.of()));
+
+        while (!pending.isEmpty()) {
+            Long childId = pending.pop();
+            if (!childId.equals(id) && descendantIds.add(childId)) {
+                pending.addAll(childIdsByParent.getOrDefault(childId, List.of()));
+            }
+        }
+
+        return descendantIds;
+    }
+
+    public Optional<CategoryNode> findById(Long id) {
+        return Optional.ofNullable(nodesById.get(id));
+    }
+
+    public Optional<CategoryNode> findByName(String name) {
+        return Optional.ofNullable(nodesByName.get(name));
+    }
+
+    public List<CategoryNode> findByNamePrefix(String prefix, int limit) {
+        return nodesByName.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values().stream()
+                .limit(limit)
+                .toList();
+    }
+
+    public Set<Long> findMissingIds(Collection<Long> ids) {
+        return ids.stream()
+                .filter(id -> !nodesById.containsKey(id))
+                .collect(Collectors.toSet());
+    }
+
+    public List<Long> getSubtreeIds(Long id) {
+        CategoryNode node = nodesById.get(id);
+        if (node == null) {
+            return List.of();
+        }
+
+        List<Long> subtreeIds = new ArrayList<>();
+        subtreeIds.add(id);
+        subtreeIds.addAll(node.getDescendantIds());
+        return subtreeIds;
+    }
+
+    public List<Long> getRootIds() {
+        return rootIds;
+    }
+
+    public int size() {
+        return nodesById.size();
+    }
+
+}
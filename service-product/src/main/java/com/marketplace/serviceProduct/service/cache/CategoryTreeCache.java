@@ -0,0 +1,101 @@
+package com.marketplace.serviceProduct.service.cache;
+
+import com.marketplace.serviceProduct.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@RequiredArgsConstructor
+public class CategoryTreeCache {
+
+    public static final String CHANGES_CHANNEL = "category-tree:changes";
+
+    private final CategoryRepository categoryRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    @Value("${category.tree.redis-sync:true}")
+    private boolean redisSync;
+
+    // Upper bound on staleness when a change message from another replica is lost.
+    @Value("${category.tree.max-age-ms:300000}")
+    private long maxAgeMs;
+
+    public CategoryTree get() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return current.tree();
+        }
+
+        synchronized (this) {
+            Snapshot latest = snapshot;
+            if (isFresh(latest)) {
+                return latest.tree();
+            }
+
+            long loadGeneration = generation.get();
+            long loadedAt = System.nanoTime();
+            CategoryTree loaded = CategoryTree.build(categoryRepository.findAllRows());
+            if (generation.get() == loadGeneration) {
+                snapshot = new Snapshot(loaded, loadedAt);
+            }
+
+            return loaded;
+        }
+    }
+
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    public void onRemoteChange(String publisherId) {
+        if (!instanceId.equals(publisherId)) {
+            invalidate();
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private boolean isFresh(Snapshot current) {
+        return current != null && System.nanoTime() - current.loadedAt() < TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+    }
+
+    private void refresh() {
+        invalidate();
+
+        if (redisSync) {
+            try {
+                redisTemplate.convertAndSend(CHANGES_CHANNEL, instanceId);
+            } catch (DataAccessException ignored) {
+            }
+        }
+    }
+
+    private record Snapshot(CategoryTree tree, long loadedAt) {
+    }
+
+}
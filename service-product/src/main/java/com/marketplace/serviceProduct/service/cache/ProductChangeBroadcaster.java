@@ -0,0 +1,58 @@
+package com.marketplace.serviceProduct.service.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class ProductChangeBroadcaster {
+
+    private static final String SEPARATOR = ":";
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${product.cache.redis-sync:true}")
+    private boolean redisSync;
+
+    // An empty id list stands for every product.
+    public void publish(String channel, Collection<Long> productIds) {
+        if (!redisSync) {
+            return;
+        }
+
+        String message = instanceId + SEPARATOR + productIds.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (DataAccessException ignored) {
+        }
+    }
+
+    // This instance has already applied its own changes.
+    public boolean isRemote(String message) {
+        int separator = message.indexOf(SEPARATOR);
+        return separator >= 0 && !message.substring(0, separator).equals(instanceId);
+    }
+
+    public List<Long> productIds(String message) {
+        int separator = message.indexOf(SEPARATOR);
+        return Arrays.stream(message.substring(separator + 1).split(","))
+                .filter(id -> !id.isEmpty())
+                .map(Long::valueOf)
+                .toList();
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.marketplace.serviceProduct.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.serviceProduct.dto.response.ProductDetailsResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+@Component
+@RequiredArgsConstructor
+public class ProductDetailsCache {
+
+    private static final String KEY_PREFIX = "product:details:";
+    private static final int EVICTION_STRIPES = 1024;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentMap<Long, CompletableFuture<ProductDetailsResponse>> inFlightLoads =
+            new ConcurrentHashMap<>();
+
+    // Bumped on every eviction; a load that overlapped an eviction must not leave its result in Redis.
+    private final AtomicLongArray evictionGenerations = new AtomicLongArray(EVICTION_STRIPES);
+
+    @Value("${product.details-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    public ProductDetailsResponse getOrLoad(Long productId, Supplier<ProductDetailsResponse> loader) {
+        ProductDetailsResponse cached = read(productId);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<ProductDetailsResponse> load = new CompletableFuture<>();
+        CompletableFuture<ProductDetailsResponse> inFlightLoad = inFlightLoads.putIfAbsent(productId, load);
+        if (inFlightLoad != null) {
+            return awaitLoad(inFlightLoad);
+        }
+
+        try {
+            long generation = evictionGeneration(productId);
+            ProductDetailsResponse response = loader.get();
+            writeIfNotEvicted(productId, response, generation);
+            load.complete(response);
+
+            return response;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(productId, load);
+        }
+    }
+
+    public void evict(Long productId) {
+        evictAll(List.of(productId));
+    }
+
+    public void evictAll(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+
+        List<Long> evictedIds = List.copyOf(productIds);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(evictedIds);
+                }
+            });
+        } else {
+            evictNow(evictedIds);
+        }
+    }
+
+    private void evictNow(List<Long> productIds) {
+        productIds.forEach(productId -> evictionGenerations.incrementAndGet(stripe(productId)));
+
+        delete(productIds.stream()
+                .map(this::key)
+                .toList());
+    }
+
+    private void writeIfNotEvicted(Long productId, ProductDetailsResponse response, long generation) {
+        if (evictionGeneration(productId) != generation) {
+            return;
+        }
+
+        write(productId, response);
+
+        if (evictionGeneration(productId) != generation) {
+            delete(List.of(key(productId)));
+        }
+    }
+
+    private long evictionGeneration(Long productId) {
+        return evictionGenerations.get(stripe(productId));
+    }
+
+    private int stripe(Long productId) {
+        return Math.floorMod(productId.hashCode(), EVICTION_STRIPES);
+    }
+
+    private ProductDetailsResponse awaitLoad(CompletableFuture<ProductDetailsResponse> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw e;
+        }
+    }
+
+    private ProductDetailsResponse read(Long productId) {
+        try {
+            String json = redisTemplate.opsForValue().get(key(productId));
+
+            return json != null ? objectMapper.readValue(json, ProductDetailsResponse.class) : null;
+        } catch (DataAccessException | JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private void write(Long productId, ProductDetailsResponse response) {
+        try {
+            redisTemplate.opsForValue().set(
+                    key(productId),
+                    objectMapper.writeValueAsString(response),
+                    Duration.ofSeconds(ttlSeconds)
+            );
+        } catch (DataAccessException | JsonProcessingException ignored) {
+        }
+    }
+
+    private void delete(List<String> keys) {
+        try {
+            redisTemplate.delete(keys);
+        } catch (DataAccessException ignored) {
+        }
+    }
+
+    private String key(Long productId) {
+        return KEY_PREFIX + productId;
+    }
+
+}
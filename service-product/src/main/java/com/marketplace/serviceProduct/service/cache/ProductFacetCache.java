@@ -0,0 +1,143 @@
+package com.marketplace.serviceProduct.service.cache;
+
+import com.marketplace.serviceProduct.dto.projection.ProductCategoryLink;
+import com.marketplace.serviceProduct.dto.projection.ProductFacetRow;
+import com.marketplace.serviceProduct.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class ProductFacetCache implements ApplicationRunner {
+
+    public static final String CHANGES_CHANNEL = "product-facets:changes";
+
+    private final ProductRepository productRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    private final ProductChangeBroadcaster productChangeBroadcaster;
+
+    private volatile ProductFacetIndex index;
+
+    @Value("${product.facets.price-bounds:1000,5000,10000,50000}")
+    private int[] priceBounds;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        get();
+    }
+
+    public ProductFacetIndex get() {
+        ProductFacetIndex current = index;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (index == null) {
+                index = ProductFacetIndex.build(
+                        priceBounds,
+                        categoryTreeCache.get(),
+                        productRepository.findAllFacetRows(),
+                        productRepository.findAllCategoryLinks());
+            }
+
+            return index;
+        }
+    }
+
+    public void addAllAfterCommit(Collection<ProductFacetRow> rows, Map<Long, List<Long>> categoryIds) {
+        afterCommit(rows.stream().map(ProductFacetRow::id).toList(), current -> rows.forEach(row ->
+                current.add(row, categoryIds.getOrDefault(row.id(), List.of()), categoryTreeCache.get())));
+    }
+
+    public void updateRatingsAfterCommit(Map<Long, Double> ratings) {
+        afterCommit(List.copyOf(ratings.keySet()), current -> ratings.forEach(current::updateRating));
+    }
+
+    public void updateStockAfterCommit(Map<Long, Integer> availableCounts) {
+        afterCommit(List.copyOf(availableCounts.keySet()), current -> availableCounts.forEach(current::updateStock));
+    }
+
+    public void invalidateAfterCommit() {
+        afterCommit(() -> {
+            invalidate();
+            productChangeBroadcaster.publish(CHANGES_CHANNEL, List.of());
+        });
+    }
+
+    public void onRemoteChange(String message) {
+        if (!productChangeBroadcaster.isRemote(message)) {
+            return;
+        }
+
+        List<Long> productIds = productChangeBroadcaster.productIds(message);
+        if (productIds.isEmpty()) {
+            invalidate();
+            return;
+        }
+
+        if (index == null) {
+            return;
+        }
+
+        Map<Long, List<Long>> categoryIds = productRepository.findCategoryLinksByProductIdIn(productIds).stream()
+                .collect(Collectors.groupingBy(ProductCategoryLink::productId,
+                        Collectors.mapping(ProductCategoryLink::categoryId, Collectors.toList())));
+        List<ProductFacetRow> rows = productRepository.findFacetRowsByIdIn(productIds);
+
+        apply(() -> {
+            ProductFacetIndex current = index;
+            if (current != null) {
+                rows.forEach(row -> current.add(row, categoryIds.getOrDefault(row.id(), List.of()), categoryTreeCache.get()));
+            }
+        });
+    }
+
+    public synchronized void invalidate() {
+        index = null;
+    }
+
+    private synchronized void apply(Runnable update) {
+        update.run();
+    }
+
+    private void afterCommit(List<Long> productIds, Consumer<ProductFacetIndex> update) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+
+        afterCommit(() -> {
+            ProductFacetIndex current = index;
+            if (current != null) {
+                update.accept(current);
+            }
+
+            productChangeBroadcaster.publish(CHANGES_CHANNEL, productIds);
+        });
+    }
+
+    private void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(update);
+                }
+            });
+        } else {
+            apply(update);
+        }
+    }
+
+}
@@ -0,0 +1,317 @@
+package com.marketplace.serviceProduct.service.cache;
+
+import com.marketplace.serviceProduct.dto.projection.ProductCategoryLink;
+import com.marketplace.serviceProduct.dto.projection.ProductFacetRow;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class ProductFacetIndex {
+
+    public static final int MAX_RATING = 5;
+
+    private final int[] priceBounds;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Bitsets and subtree sets hold dense ordinals; productIds maps an ordinal back to its product id.
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private long[] productIds = new long[16];
+    private boolean ordinalsFollowIds = true;
+
+    private final BitSet products = new BitSet();
+    private final BitSet inStock = new BitSet();
+    private final BitSet[] priceBuckets;
+    // Index 0 holds unrated products, index n products with a rating in [n, n + 1).
+    private final BitSet[] ratingBuckets = new BitSet[MAX_RATING + 1];
+    private final Map<Long, SortedIntSet> subtreeProducts = new HashMap<>();
+
+    public ProductFacetIndex(int[] priceBounds) {
+        this.priceBounds = priceBounds.clone();
+        Arrays.sort(this.priceBounds);
+
+        priceBuckets = new BitSet[this.priceBounds.length + 1];
+        Arrays.setAll(priceBuckets, i -> new BitSet());
+        Arrays.setAll(ratingBuckets, i -> new BitSet());
+    }
+
+    public static ProductFacetIndex build(
+            int[] priceBounds, CategoryTree categoryTree,
+            Collection<ProductFacetRow> rows, Collection<ProductCategoryLink> links)
+    {
+        ProductFacetIndex index = new ProductFacetIndex(priceBounds);
+
+        Map<Long, List<Long>> categoryIdsByProduct = new HashMap<>();
+        links.forEach(link -> categoryIdsByProduct
+                .computeIfAbsent(link.productId(), id -> new ArrayList<>())
+                .add(link.categoryId()));
+
+        rows.stream()
+                .sorted(Comparator.comparing(ProductFacetRow::id))
+                .forEach(row -> index.add(row, categoryIdsByProduct.getOrDefault(row.id(), List.of()), categoryTree));
+
+        return index;
+    }
+
+    public void add(ProductFacetRow row, Collection<Long> categoryIds, CategoryTree categoryTree) {
+        lock.writeLock().lock();
+        try {
+            int id = assignOrdinal(row.id());
+            products.set(id);
+            inStock.set(id, row.count() != null && row.count() > 0);
+            for (BitSet bucket : priceBuckets) {
+                bucket.clear(id);
+            }
+            priceBuckets[priceBucketOf(row.price())].set(id);
+            setRating(id, row.rating());
+
+            Set<Long> subtreeIds = new HashSet<>();
+            for (Long categoryId : categoryIds) {
+                subtreeIds.add(categoryId);
+                categoryTree.findById(categoryId).ifPresent(node -> subtreeIds.addAll(node.getAncestorIds()));
+            }
+            subtreeIds.forEach(categoryId -> subtreeProducts.computeIfAbsent(categoryId, key -> new SortedIntSet()).add(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateRating(Long productId, Double rating) {
+        lock.writeLock().lock();
+        try {
+            Integer id = ordinals.get(productId);
+            if (id != null) {
+                setRating(id, rating);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateStock(Long productId, int availableCount) {
+        lock.writeLock().lock();
+        try {
+            Integer id = ordinals.get(productId);
+            if (id != null) {
+                inStock.set(id, availableCount > 0);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ProductFacetResult search(
+            CategoryTree categoryTree, Long categoryId,
+            Set<Integer> priceBucketIndexes, Integer minRating, boolean inStockOnly,
+            long afterId, int limit)
+    {
+        lock.readLock().lock();
+        try {
+            SortedIntSet categoryFilter = categoryId != null
+                    ? subtreeProducts.getOrDefault(categoryId, new SortedIntSet())
+                    : null;
+            BitSet priceFilter = priceBucketIndexes.isEmpty() ? null : union(priceBuckets, priceBucketIndexes);
+            BitSet ratingFilter = minRating != null ? unionFrom(ratingBuckets, minRating) : null;
+            BitSet stockFilter = inStockOnly ? inStock : null;
+
+            BitSet matches = intersect(categoryFilter, priceFilter, ratingFilter, stockFilter);
+
+            List<Long> pageIds = ordinalsFollowIds
+                    ? pageInOrdinalOrder(matches, afterId, limit + 1)
+                    : pageBySelection(matches, afterId, limit + 1);
+            boolean hasNext = pageIds.size() > limit;
+            if (hasNext) {
+                pageIds.remove(limit);
+            }
+
+            BitSet withoutPrice = intersect(categoryFilter, null, ratingFilter, stockFilter);
+            int[] priceBucketCounts = new int[priceBuckets.length];
+            for (int bucket = 0; bucket < priceBuckets.length; bucket++) {
+                priceBucketCounts[bucket] = intersectionCount(priceBuckets[bucket], withoutPrice);
+            }
+
+            BitSet withoutRating = intersect(categoryFilter, priceFilter, null, stockFilter);
+            int[] minRatingCounts = new int[MAX_RATING + 1];
+            for (int rating = MAX_RATING; rating >= 1; rating--) {
+                minRatingCounts[rating] = intersectionCount(ratingBuckets[rating], withoutRating)
+                        + (rating < MAX_RATING ? minRatingCounts[rating + 1] : 0);
+            }
+
+            int inStockCount = intersectionCount(inStock, intersect(categoryFilter, priceFilter, ratingFilter, null));
+
+            BitSet withoutCategory = intersect(null, priceFilter, ratingFilter, stockFilter);
+            List<Long> childIds = categoryId != null
+                    ? categoryTree.findById(categoryId).map(CategoryNode::getChildIds).orElse(List.of())
+                    : categoryTree.getRootIds();
+            Map<Long, Integer> categoryCounts = new LinkedHashMap<>();
+            for (Long childId : childIds) {
+                categoryCounts.put(childId, intersectionCount(subtreeProducts.get(childId), withoutCategory));
+            }
+
+            return new ProductFacetResult(
+                    matches.cardinality(), pageIds, hasNext,
+                    categoryCounts, priceBucketCounts, minRatingCounts, inStockCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<String> getPriceBucketLabels() {
+        List<String> labels = new ArrayList<>(priceBuckets.length);
+        for (int bucket = 0; bucket < priceBuckets.length; bucket++) {
+            int from = bucket == 0 ? 0 : priceBounds[bucket - 1];
+            labels.add(bucket == priceBounds.length
+                    ? from + "+"
+                    : from + "-" + (priceBounds[bucket] - 1));
+        }
+        return labels;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return products.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int assignOrdinal(Long productId) {
+        Integer existing = ordinals.get(productId);
+        if (existing != null) {
+            return existing;
+        }
+
+        int ordinal = ordinals.size();
+        if (ordinal > 0 && productIds[ordinal - 1] > productId) {
+            ordinalsFollowIds = false;
+        }
+        if (ordinal == productIds.length) {
+            productIds = Arrays.copyOf(productIds, ordinal * 2);
+        }
+
+        productIds[ordinal] = productId;
+        ordinals.put(productId, ordinal);
+        return ordinal;
+    }
+
+    private List<Long> pageInOrdinalOrder(BitSet matches, long afterId, int size) {
+        int start = Arrays.binarySearch(productIds, 0, ordinals.size(), afterId);
+        start = start >= 0 ? start + 1 : -start - 1;
+
+        List<Long> page = new ArrayList<>();
+        for (int id = matches.nextSetBit(start); id >= 0 && page.size() < size; id = matches.nextSetBit(id + 1)) {
+            page.add(productIds[id]);
+        }
+        return page;
+    }
+
+    // Products added out of id order: keep the smallest matching ids above afterId.
+    private List<Long> pageBySelection(BitSet matches, long afterId, int size) {
+        PriorityQueue<Long> largestFirst = new PriorityQueue<>(Comparator.reverseOrder());
+        for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+            long productId = productIds[id];
+            if (productId <= afterId) {
+                continue;
+            }
+
+            if (largestFirst.size() < size) {
+                largestFirst.add(productId);
+            } else if (productId < largestFirst.peek()) {
+                largestFirst.poll();
+                largestFirst.add(productId);
+            }
+        }
+
+        List<Long> page = new ArrayList<>(largestFirst);
+        Collections.sort(page);
+        return page;
+    }
+
+    private void setRating(int id, Double rating) {
+        for (BitSet bucket : ratingBuckets) {
+            bucket.clear(id);
+        }
+        ratingBuckets[ratingBucketOf(rating)].set(id);
+    }
+
+    private int priceBucketOf(Integer price) {
+        int bucket = 0;
+        while (bucket < priceBounds.length && price != null && price >= priceBounds[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private int ratingBucketOf(Double rating) {
+        if (rating == null) {
+            return 0;
+        }
+        return Math.max(1, Math.min(MAX_RATING, (int) Math.floor(rating)));
+    }
+
+    private BitSet intersect(SortedIntSet categoryFilter, BitSet... denseFilters) {
+        if (categoryFilter != null) {
+            BitSet result = new BitSet();
+            for (int i = 0; i < categoryFilter.size(); i++) {
+                int id = categoryFilter.get(i);
+                if (containsAll(denseFilters, id)) {
+                    result.set(id);
+                }
+            }
+            return result;
+        }
+
+        BitSet result = (BitSet) products.clone();
+        for (BitSet filter : denseFilters) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private boolean containsAll(BitSet[] filters, int id) {
+        for (BitSet filter : filters) {
+            if (filter != null && !filter.get(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int intersectionCount(BitSet facet, BitSet base) {
+        BitSet result = (BitSet) facet.clone();
+        result.and(base);
+        return result.cardinality();
+    }
+
+    private int intersectionCount(SortedIntSet facet, BitSet base) {
+        if (facet == null) {
+            return 0;
+        }
+
+        int count = 0;
+        for (int i = 0; i < facet.size(); i++) {
+            if (base.get(facet.get(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private BitSet union(BitSet[] buckets, Set<Integer> bucketIndexes) {
+        BitSet result = new BitSet();
+        bucketIndexes.forEach(bucket -> result.or(buckets[bucket]));
+        return result;
+    }
+
+    private BitSet unionFrom(BitSet[] buckets, int fromBucket) {
+        BitSet result = new BitSet();
+        for (int bucket = fromBucket; bucket < buckets.length; bucket++) {
+            result.or(buckets[bucket]);
+        }
+        return result;
+    }
+
+}
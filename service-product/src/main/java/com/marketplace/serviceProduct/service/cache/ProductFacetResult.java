@@ -0,0 +1,21 @@
+package com.marketplace.serviceProduct.service.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class ProductFacetResult {
+
+    private final int total;
+    private final List<Long> productIds;
+    private final boolean hasNext;
+    private final Map<Long, Integer> categoryCounts;
+    private final int[] priceBucketCounts;
+    private final int[] minRatingCounts;
+    private final int inStockCount;
+
+}
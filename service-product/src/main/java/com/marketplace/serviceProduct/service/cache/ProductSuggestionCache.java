@@ -0,0 +1,127 @@
+package com.marketplace.serviceProduct.service.cache;
+
+import com.marketplace.serviceProduct.dto.projection.ProductSuggestionRow;
+import com.marketplace.serviceProduct.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+public class ProductSuggestionCache implements ApplicationRunner {
+
+    public static final String CHANGES_CHANNEL = "product-suggestions:changes";
+
+    private final ProductRepository productRepository;
+    private final ProductChangeBroadcaster productChangeBroadcaster;
+
+    // Rows committed after the index was built; they shadow indexed rows with the same id until the next merge.
+    private record State(ProductSuggestionIndex index, Map<Long, ProductSuggestionRow> pending) {
+    }
+
+    private volatile State state;
+
+    @Value("${product.suggest.max-pending:1000}")
+    private int maxPending;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        getState();
+    }
+
+    public List<ProductSuggestionRow> suggest(String query, int limit) {
+        List<String> queryTerms = ProductSuggestionIndex.tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        State current = getState();
+        List<ProductSuggestionRow> indexed = current.index().suggest(queryTerms, limit, current.pending().keySet());
+        Stream<ProductSuggestionRow> pending = current.pending().values().stream()
+                .filter(row -> ProductSuggestionIndex.matches(row.name(), queryTerms));
+
+        return Stream.concat(indexed.stream(), pending)
+                .sorted(ProductSuggestionIndex.RATING_ORDER)
+                .limit(limit)
+                .toList();
+    }
+
+    public void upsertAfterCommit(Collection<ProductSuggestionRow> rows) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    upsertAndPublish(rows);
+                }
+            });
+        } else {
+            upsertAndPublish(rows);
+        }
+    }
+
+    public void onRemoteChange(String message) {
+        if (!productChangeBroadcaster.isRemote(message)) {
+            return;
+        }
+
+        List<Long> productIds = productChangeBroadcaster.productIds(message);
+        if (!productIds.isEmpty()) {
+            upsert(productRepository.findSuggestionRowsByIdIn(productIds));
+        }
+    }
+
+    public int size() {
+        State current = getState();
+        return current.index().size() + current.pending().size();
+    }
+
+    private void upsertAndPublish(Collection<ProductSuggestionRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        upsert(rows);
+        productChangeBroadcaster.publish(CHANGES_CHANNEL, rows.stream()
+                .map(ProductSuggestionRow::id)
+                .toList());
+    }
+
+    private synchronized void upsert(Collection<ProductSuggestionRow> rows) {
+        State current = state;
+        if (current == null) {
+            return;
+        }
+
+        Map<Long, ProductSuggestionRow> pending = new HashMap<>(current.pending());
+        rows.forEach(row -> pending.put(row.id(), row));
+
+        if (pending.size() > maxPending) {
+            state = new State(current.index().withRows(pending), Map.of());
+        } else {
+            state = new State(current.index(), Map.copyOf(pending));
+        }
+    }
+
+    private State getState() {
+        State current = state;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (state == null) {
+                state = new State(ProductSuggestionIndex.build(productRepository.findAllSuggestionRows()), Map.of());
+            }
+
+            return state;
+        }
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.marketplace.serviceProduct.service.cache;
+
+import com.marketplace.serviceProduct.dto.projection.ProductSuggestionRow;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+// Ordinals follow rating order, so every posting list is also sorted by rating.
+public class ProductSuggestionIndex {
+
+    public static final Comparator<ProductSuggestionRow> RATING_ORDER = Comparator
+            .comparing(ProductSuggestionRow::rating, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(ProductSuggestionRow::id);
+
+    private static final Pattern TERM_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final long[] productIds;
+    private final String[] names;
+    private final double[] ratings;
+    private final String[] terms;
+    private final int[][] postings;
+
+    private ProductSuggestionIndex(long[] productIds, String[] names, double[] ratings, String[] terms, int[][] postings) {
+        this.productIds = productIds;
+        this.names = names;
+        this.ratings = ratings;
+        this.terms = terms;
+        this.postings = postings;
+    }
+
+    public static ProductSuggestionIndex build(Collection<ProductSuggestionRow> rows) {
+        List<ProductSuggestionRow> ordered = rows.stream()
+                .filter(row -> row.name() != null)
+                .sorted(RATING_ORDER)
+                .toList();
+
+        long[] productIds = new long[ordered.size()];
+        String[] names = new String[ordered.size()];
+        double[] ratings = new double[ordered.size()];
+        Map<String, int[]> postingsByTerm = new HashMap<>();
+        Map<String, Integer> postingSizes = new HashMap<>();
+
+        for (int ordinal = 0; ordinal < ordered.size(); ordinal++) {
+            ProductSuggestionRow row = ordered.get(ordinal);
+            productIds[ordinal] = row.id();
+            names[ordinal] = row.name();
+            ratings[ordinal] = row.rating() != null ? row.rating() : Double.NaN;
+
+            for (String term : new LinkedHashSet<>(tokenize(row.name()))) {
+                int size = postingSizes.getOrDefault(term, 0);
+                int[] posting = postingsByTerm.get(term);
+                if (posting == null) {
+                    posting = new int[1];
+                } else if (posting.length == size) {
+                    posting = Arrays.copyOf(posting, size * 2);
+                }
+                posting[size] = ordinal;
+                postingsByTerm.put(term, posting);
+                postingSizes.put(term, size + 1);
+            }
+        }
+
+        String[] terms = postingsByTerm.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+        int[][] postings = new int[terms.length][];
+        for (int i = 0; i < terms.length; i++) {
+            postings[i] = Arrays.copyOf(postingsByTerm.get(terms[i]), postingSizes.get(terms[i]));
+        }
+
+        return new ProductSuggestionIndex(productIds, names, ratings, terms, postings);
+    }
+
+    public static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+
+        return TERM_SEPARATOR.splitAsStream(text.toLowerCase())
+                .filter(term -> !term.isEmpty())
+                .toList();
+    }
+
+    public static boolean matches(String name, List<String> queryTerms) {
+        List<String> nameTerms = tokenize(name);
+
+        return queryTerms.stream()
+                .allMatch(queryTerm -> nameTerms.stream().anyMatch(nameTerm -> nameTerm.startsWith(queryTerm)));
+    }
+
+    public List<ProductSuggestionRow> suggest(List<String> queryTerms, int limit, Set<Long> excludedIds) {
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        String prefix = queryTerms.get(queryTerms.size() - 1);
+        int from = lowerBound(prefix);
+        int to = from;
+        while (to < terms.length && terms[to].startsWith(prefix)) {
+            to++;
+        }
+
+        PriorityQueue<int[]> cursors = new PriorityQueue<>(Math.max(1, to - from),
+                Comparator.comparingInt(cursor -> postings[cursor[0]][cursor[1]]));
+        for (int term = from; term < to; term++) {
+            cursors.add(new int[]{term, 0});
+        }
+
+        List<ProductSuggestionRow> suggestions = new ArrayList<>(limit);
+        int lastOrdinal = -1;
+        while (!cursors.isEmpty() && suggestions.size() < limit) {
+            int[] cursor = cursors.poll();
+            int ordinal = postings[cursor[0]][cursor[1]];
+            if (++cursor[1] < postings[cursor[0]].length) {
+                cursors.add(cursor);
+            }
+
+            if (ordinal == lastOrdinal) {
+                continue;
+            }
+            lastOrdinal = ordinal;
+
+            if (!excludedIds.contains(productIds[ordinal])
+                    && (queryTerms.size() == 1 || matches(names[ordinal], queryTerms))) {
+                suggestions.add(toRow(ordinal));
+            }
+        }
+
+        return suggestions;
+    }
+
+    public ProductSuggestionIndex withRows(Map<Long, ProductSuggestionRow> replacements) {
+        List<ProductSuggestionRow> rows = new ArrayList<>(productIds.length + replacements.size());
+        for (int ordinal = 0; ordinal < productIds.length; ordinal++) {
+            if (!replacements.containsKey(productIds[ordinal])) {
+                rows.add(toRow(ordinal));
+            }
+        }
+        rows.addAll(replacements.values());
+
+        return build(rows);
+    }
+
+    public int size() {
+        return productIds.length;
+    }
+
+    private ProductSuggestionRow toRow(int ordinal) {
+        return new ProductSuggestionRow(
+                productIds[ordinal],
+                names[ordinal],
+                Double.isNaN(ratings[ordinal]) ? null : ratings[ordinal]);
+    }
+
+    private int lowerBound(String prefix) {
+        int index = Arrays.binarySearch(terms, prefix);
+        return index >= 0 ? index : -index - 1;
+    }
+
+}
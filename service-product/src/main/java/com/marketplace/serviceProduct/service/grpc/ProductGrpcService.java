@@ -2,34 +2,39 @@ package com.marketplace.serviceProduct.service.grpc;
 
 import com.marketplace.grpc.Product;
 import com.marketplace.grpc.ProductServiceGrpc;
-import com.marketplace.serviceProduct.exception.ProductException;
-import com.marketplace.serviceProduct.repository.ProductRepository;
+import com.marketplace.serviceProduct.dto.projection.ProductStock;
+import com.marketplace.serviceProduct.dto.stock.StockReservationResult;
 import com.marketplace.serviceProduct.service.ProductService;
+import com.marketplace.serviceProduct.service.StockReservationService;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import lombok.RequiredArgsConstructor;
 import net.devh.boot.grpc.server.service.GrpcService;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
 @Service
 @GrpcService
 @RequiredArgsConstructor
 public class ProductGrpcService extends ProductServiceGrpc.ProductServiceImplBase {
 
     private final ProductService productService;
-    private final ProductRepository productRepository;
+    private final StockReservationService stockReservationService;
 
     @Override
     public void validateProduct(
             Product.ValidateProductRequest request,
             StreamObserver<Product.ValidateProductResponse> responseObserver)
     {
-        try {
-            productService.findProductById(request.getProductId());
+        boolean productExist = productService.productExists(request.getProductId());
 
-            sendValidateProductResponse(responseObserver, true);
-        } catch (ProductException e) {
-            sendValidateProductResponse(responseObserver, false);
-        }
+        sendValidateProductResponse(responseObserver, productExist);
     }
 
     private void sendValidateProductResponse(
@@ -48,11 +53,20 @@ public class ProductGrpcService extends ProductServiceGrpc.ProductServiceImplBas
     public void validateBasketProducts(Product.BasketValidationRequest request,
                                        StreamObserver<Product.BasketValidationResponse> responseObserver)
     {
+        Map<Long, Integer> requestedCounts = collectRequestedCounts(request);
+
         Product.BasketValidationResponse.Builder responseBuilder = Product.BasketValidationResponse.newBuilder();
 
-        for (Product.BasketItemRequest basketItem : request.getItemsList()) {
-            Product.ProductValidationResult validationResult = validateProductForBasket(basketItem);
-            responseBuilder.addResults(validationResult);
+        try {
+            stockReservationService.reserveAll(requestedCounts).values().stream()
+                    .map(this::createProductValidationResult)
+                    .forEach(responseBuilder::addResults);
+        } catch (Exception e) {
+            responseObserver.onError(Status.INTERNAL
+                    .withDescription("Stock reservation failed for basket")
+                    .withCause(e)
+                    .asRuntimeException());
+            return;
         }
 
         Product.BasketValidationResponse response = responseBuilder.build();
@@ -60,22 +74,105 @@ public class ProductGrpcService extends ProductServiceGrpc.ProductServiceImplBas
         responseObserver.onCompleted();
     }
 
-    private Product.ProductValidationResult validateProductForBasket(Product.BasketItemRequest basketItem) {
-        long productId = basketItem.getProductId();
-        int requestedCount = basketItem.getCount();
+    @Override
+    public void checkBasketProducts(Product.BasketValidationRequest request,
+                                    StreamObserver<Product.BasketValidationResponse> responseObserver)
+    {
+        Map<Long, Integer> requestedCounts = collectRequestedCounts(request);
+        Map<Long, ProductStock> stocks = productService.findStocks(requestedCounts.keySet());
 
-        try {
-            var product = productService.findProductById(productId);
+        Product.BasketValidationResponse.Builder responseBuilder = Product.BasketValidationResponse.newBuilder();
 
-            if (requestedCount <= product.getCount()) {
-                product.setCount(product.getCount() - requestedCount);
-                productRepository.save(product);
+        requestedCounts.forEach((productId, requestedCount) -> {
+            ProductStock stock = stocks.get(productId);
+
+            responseBuilder.addResults(stock != null
+                    ? Product.ProductValidationResult.newBuilder()
+                            .setProductId(productId)
+                            .setProductExists(true)
+                            .setRequestedCount(requestedCount)
+                            .setAvailableCount(stock.getCount())
+                            .setIsCountSufficient(requestedCount <= stock.getCount())
+                            .setCurrentPrice(stock.getPrice())
+                            .build()
+                    : createNotFoundProductResult(productId, requestedCount));
+        });
+
+        responseObserver.onNext(responseBuilder.build());
+        responseObserver.onCompleted();
+    }
+
+    private Map<Long, Integer> collectRequestedCounts(Product.BasketValidationRequest request) {
+        return request.getItemsList().stream()
+                .collect(Collectors.toMap(
+                        Product.BasketItemRequest::getProductId,
+                        Product.BasketItemRequest::getCount,
+                        Integer::sum,
+                        LinkedHashMap::new
+                ));
+    }
+
+    @Override
+    public StreamObserver<Product.BasketItemRequest> streamBasketProducts(
+            StreamObserver<Product.ProductValidationResult> responseObserver)
+    {
+        ServerCallStreamObserver<Product.ProductValidationResult> serverObserver =
+                (ServerCallStreamObserver<Product.ProductValidationResult>) responseObserver;
+        serverObserver.disableAutoRequest();
+
+        AtomicBoolean wasReady = new AtomicBoolean(false);
+        serverObserver.setOnReadyHandler(() -> {
+            if (serverObserver.isReady() && wasReady.compareAndSet(false, true)) {
+                serverObserver.request(1);
+            }
+        });
+
+        StreamReservations reservations = new StreamReservations();
+        serverObserver.setOnCancelHandler(() -> releaseReservations(reservations));
+
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(Product.BasketItemRequest item) {
+                StockReservationResult reservation;
+                try {
+                    reservation = stockReservationService.reserve(item.getProductId(), item.getCount());
+                } catch (Exception e) {
+                    releaseReservations(reservations);
+                    serverObserver.onError(Status.INTERNAL
+                            .withDescription("Stock reservation failed for product " + item.getProductId())
+                            .withCause(e)
+                            .asRuntimeException());
+                    return;
+                }
+
+                if (reservation.isReserved() && !reservations.add(item.getProductId(), item.getCount())) {
+                    stockReservationService.release(item.getProductId(), item.getCount());
+                    return;
+                }
+
+                serverObserver.onNext(createProductValidationResult(reservation));
+
+                if (serverObserver.isReady()) {
+                    serverObserver.request(1);
+                } else {
+                    wasReady.set(false);
+                }
             }
 
-            return createFoundProductResult(product, requestedCount);
-        } catch (Exception e) {
-            return createNotFoundProductResult(productId, requestedCount);
-        }
+            @Override
+            public void onError(Throwable throwable) {
+                releaseReservations(reservations);
+            }
+
+            @Override
+            public void onCompleted() {
+                serverObserver.onCompleted();
+            }
+        };
+    }
+
+    private void releaseReservations(StreamReservations reservations) {
+        reservations.releaseAll().forEach(stockReservationService::release);
     }
 
     private Product.ProductValidationResult createNotFoundProductResult(long productId, int requestedCount) {
@@ -89,16 +186,14 @@ public class ProductGrpcService extends ProductServiceGrpc.ProductServiceImplBas
                 .build();
     }
 
-    private Product.ProductValidationResult createFoundProductResult(
-            com.marketplace.serviceProduct.entity.Product product, int requestedCount)
-    {
+    private Product.ProductValidationResult createProductValidationResult(StockReservationResult reservation) {
         return Product.ProductValidationResult.newBuilder()
-                .setProductId(product.getId())
-                .setProductExists(true)
-                .setRequestedCount(requestedCount)
-                .setAvailableCount(product.getCount())
-                .setIsCountSufficient(requestedCount <= product.getCount())
-                .setCurrentPrice(product.getPrice())
+                .setProductId(reservation.getProductId())
+                .setProductExists(reservation.isProductExist())
+                .setRequestedCount(reservation.getRequestedCount())
+                .setAvailableCount(reservation.getAvailableCount())
+                .setIsCountSufficient(reservation.isReserved())
+                .setCurrentPrice(reservation.getCurrentPrice())
                 .build();
     }
 
@@ -110,11 +205,9 @@ public class ProductGrpcService extends ProductServiceGrpc.ProductServiceImplBas
                 Product.CancelBasketReservationResult.newBuilder();
 
         for (Product.CancelProductReservationRequest productRequest : request.getProductsList()) {
-            var product = productService.findProductById(productRequest.getProductId());
-            product.setCount(product.getCount() + productRequest.getCount());
-            productRepository.save(product);
-
-            responseBuilder.addResults(createCancelProductReservationResult(product.getId()));
+            if (stockReservationService.release(productRequest.getProductId(), productRequest.getCount())) {
+                responseBuilder.addResults(createCancelProductReservationResult(productRequest.getProductId()));
+            }
         }
 
         Product.CancelBasketReservationResult response = responseBuilder.build();
@@ -128,4 +221,28 @@ public class ProductGrpcService extends ProductServiceGrpc.ProductServiceImplBas
                 .build();
     }
 
+    private static final class StreamReservations {
+
+        private final Map<Long, Integer> reservedCounts = new HashMap<>();
+        private boolean released;
+
+        synchronized boolean add(Long productId, int count) {
+            if (released) {
+                return false;
+            }
+
+            reservedCounts.merge(productId, count, Integer::sum);
+            return true;
+        }
+
+        synchronized Map<Long, Integer> releaseAll() {
+            released = true;
+
+            Map<Long, Integer> counts = new HashMap<>(reservedCounts);
+            reservedCounts.clear();
+            return counts;
+        }
+
+    }
+
 }
@@ -0,0 +1,91 @@
+package com.marketplace.serviceProduct.service.handler;
+
+import com.marketplace.serviceProduct.repository.ProcessedEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@RequiredArgsConstructor
+public class ProcessedEventStore {
+
+    private static final String INSERT_SQL = "INSERT INTO processed_events (event_id, processed_at) VALUES (?, ?)";
+
+    private final ProcessedEventRepository processedEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<String, Boolean> recentEventIds = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > windowSize;
+        }
+    };
+    private final AtomicLong claims = new AtomicLong();
+
+    @Value("${product.events.dedup-window-size:100000}")
+    private int windowSize;
+
+    @Value("${product.events.dedup-retention-days:7}")
+    private long retentionDays;
+
+    @Value("${product.events.dedup-purge-every:1000}")
+    private long purgeEvery;
+
+    // Must run in the transaction that applies the events, so a rollback forgets the claim.
+    public Set<String> claim(Collection<String> eventIds) {
+        Set<String> candidates = new LinkedHashSet<>(eventIds);
+        synchronized (recentEventIds) {
+            candidates.removeIf(recentEventIds::containsKey);
+        }
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+
+        List<String> processedIds = processedEventRepository.findExistingIds(candidates);
+        remember(processedIds);
+        processedIds.forEach(candidates::remove);
+
+        if (!candidates.isEmpty()) {
+            Timestamp now = Timestamp.from(Instant.now());
+            jdbcTemplate.batchUpdate(INSERT_SQL, candidates.stream()
+                    .map(eventId -> new Object[]{eventId, now})
+                    .toList());
+            rememberAfterCommit(List.copyOf(candidates));
+        }
+
+        if (claims.incrementAndGet() % purgeEvery == 0) {
+            processedEventRepository.deleteProcessedBefore(Instant.now().minus(Duration.ofDays(retentionDays)));
+        }
+
+        return candidates;
+    }
+
+    private void rememberAfterCommit(List<String> eventIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(eventIds);
+                }
+            });
+        } else {
+            remember(eventIds);
+        }
+    }
+
+    private void remember(Collection<String> eventIds) {
+        synchronized (recentEventIds) {
+            eventIds.forEach(eventId -> recentEventIds.put(eventId, Boolean.TRUE));
+        }
+    }
+
+}
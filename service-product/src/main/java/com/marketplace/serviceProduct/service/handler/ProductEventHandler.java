@@ -1,24 +1,24 @@
 package com.marketplace.serviceProduct.service.handler;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.marketplace.serviceProduct.dto.event.ProductEvent;
-import com.marketplace.serviceProduct.service.ProductService;
+import com.marketplace.events.Events.ProductEvent;
+import com.marketplace.serviceProduct.service.ProductRatingService;
 import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class ProductEventHandler {
 
-    private final ProductService productService;
-    private final ObjectMapper objectMapper;
+    private final ProductRatingService productRatingService;
 
-    @KafkaListener(topics = "products")
-    public void changeProductRating(String message) throws JsonProcessingException {
-        ProductEvent productEvent = objectMapper.readValue(message, ProductEvent.class);
-        productService.changeProductRating(productEvent.getId(), productEvent.getRating());
+    // Records are keyed by product id, so each product stays on one partition and one consumer thread.
+    @KafkaListener(topics = "products", concurrency = "${product.kafka.products.concurrency:${spring.kafka.listener.concurrency:1}}")
+    public void changeProductRatings(List<ConsumerRecord<String, ProductEvent>> records) {
+        productRatingService.applyRatings(records);
     }
 
 }
@@ -0,0 +1,160 @@
+package marketplace.serviceproduct.config;
+
+import com.marketplace.events.Events.ProductEvent;
+import com.marketplace.serviceProduct.config.KafkaConsumerConfig;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.support.TopicPartitionOffset;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KafkaConsumerConfigTest {
+
+    private static final String TOPIC = "products";
+    private static final int PARTITIONS = 4;
+    private static final int KEYS = 40;
+    private static final int EVENTS_PER_KEY = 50;
+    private static final int MAX_POLL_RECORDS = 20;
+
+    @Test
+    void kafkaListenerContainerFactory_ShouldApplyConfiguredConcurrency() {
+        ConcurrentMessageListenerContainer<String, ProductEvent> container = createContainer(3);
+
+        assertEquals(3, container.getConcurrency());
+    }
+
+    @Test
+    void partitionParallelConsumers_ShouldKeepPerKeyOrderAndSpreadPartitionsOverThreads() throws InterruptedException {
+        Run sequential = consume(1);
+        Run parallel = consume(PARTITIONS);
+
+        for (Run run : List.of(sequential, parallel)) {
+            assertEquals(KEYS, run.sequencesByKey.size());
+            run.sequencesByKey.values().forEach(sequence ->
+                    assertEquals(sequence.stream().sorted().toList(), sequence, "events of a key were reordered"));
+            run.threadsByPartition.values().forEach(threads -> assertEquals(1, threads.size()));
+        }
+        assertEquals(PARTITIONS, parallel.threadsByPartition.values().stream().flatMap(Set::stream).distinct().count());
+    }
+
+    private Run consume(int concurrency) throws InterruptedException {
+        Run run = new Run();
+        CountDownLatch remaining = new CountDownLatch(KEYS * EVENTS_PER_KEY);
+
+        ConcurrentMessageListenerContainer<String, ProductEvent> container = createContainer(concurrency);
+        container.setupMessageListener((BatchMessageListener<String, ProductEvent>) records -> {
+            String thread = Thread.currentThread().getName();
+            for (ConsumerRecord<String, ProductEvent> record : records) {
+                run.threadsByPartition.computeIfAbsent(record.partition(), partition -> ConcurrentHashMap.newKeySet())
+                        .add(thread);
+                run.sequencesByKey.computeIfAbsent(record.key(), key -> Collections.synchronizedList(new ArrayList<>()))
+                        .add(record.value().getRating());
+                remaining.countDown();
+            }
+        });
+
+        container.start();
+        try {
+            assertTrue(remaining.await(30, TimeUnit.SECONDS), "records were not consumed in time");
+        } finally {
+            container.stop();
+        }
+        return run;
+    }
+
+    private ConcurrentMessageListenerContainer<String, ProductEvent> createContainer(int concurrency) {
+        ConcurrentKafkaListenerContainerFactory<String, ProductEvent> factory = createConfig(concurrency)
+                .kafkaListenerContainerFactory();
+        factory.setConsumerFactory(new InMemoryConsumerFactory());
+
+        TopicPartitionOffset[] partitions = new TopicPartitionOffset[PARTITIONS];
+        Arrays.setAll(partitions, partition -> new TopicPartitionOffset(TOPIC, partition));
+
+        ConcurrentMessageListenerContainer<String, ProductEvent> container = factory.createContainer(partitions);
+        container.getContainerProperties().setGroupId("product-events-test");
+        return container;
+    }
+
+    private KafkaConsumerConfig createConfig(int concurrency) {
+        KafkaConsumerConfig config = new KafkaConsumerConfig();
+        ReflectionTestUtils.setField(config, "bootstrapServers", "localhost:9092");
+        ReflectionTestUtils.setField(config, "groupId", "product-events-test");
+        ReflectionTestUtils.setField(config, "autoOffsetReset", "earliest");
+        ReflectionTestUtils.setField(config, "maxPollRecords", MAX_POLL_RECORDS);
+        ReflectionTestUtils.setField(config, "concurrency", concurrency);
+        return config;
+    }
+
+    private static class Run {
+
+        private final Map<Integer, Set<String>> threadsByPartition = new ConcurrentHashMap<>();
+        private final Map<String, List<Integer>> sequencesByKey = new ConcurrentHashMap<>();
+
+    }
+
+    // Keys are spread over partitions the way a keyed producer would, so all events of a key share a partition.
+    private static class InMemoryConsumerFactory implements ConsumerFactory<String, ProductEvent> {
+
+        @Override
+        public Consumer<String, ProductEvent> createConsumer(
+                String groupId, String clientIdPrefix, String clientIdSuffix, Properties properties)
+        {
+            MockConsumer<String, ProductEvent> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+            consumer.setMaxPollRecords(MAX_POLL_RECORDS);
+
+            Map<TopicPartition, Long> beginningOffsets = new HashMap<>();
+            for (int partition = 0; partition < PARTITIONS; partition++) {
+                beginningOffsets.put(new TopicPartition(TOPIC, partition), 0L);
+            }
+            consumer.updateBeginningOffsets(beginningOffsets);
+
+            consumer.schedulePollTask(() -> {
+                long[] offsets = new long[PARTITIONS];
+                for (int sequence = 0; sequence < EVENTS_PER_KEY; sequence++) {
+                    for (int key = 0; key < KEYS; key++) {
+                        int partition = key % PARTITIONS;
+                        if (!consumer.assignment().contains(new TopicPartition(TOPIC, partition))) {
+                            continue;
+                        }
+
+                        ProductEvent event = ProductEvent.newBuilder()
+                                .setId(key)
+                                .setRating(sequence)
+                                .build();
+                        consumer.addRecord(new ConsumerRecord<>(
+                                TOPIC, partition, offsets[partition]++, String.valueOf(key), event));
+                    }
+                }
+            });
+
+            return consumer;
+        }
+
+        @Override
+        public boolean isAutoCommit() {
+            return false;
+        }
+
+        @Override
+        public Map<String, Object> getConfigurationProperties() {
+            return Map.of(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        }
+
+    }
+
+}
@@ -0,0 +1,132 @@
+package marketplace.serviceproduct.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.events.EventSchema;
+import com.marketplace.events.Events.ProductEvent;
+import com.marketplace.events.ProtobufSerializer;
+import com.marketplace.serviceProduct.config.KafkaConsumerConfig;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductEventDeserializerTest {
+
+    private static final String TOPIC = "products";
+
+    private static final ProductEvent EVENT = ProductEvent.newBuilder()
+            .setSchemaVersion(EventSchema.CURRENT_VERSION)
+            .setEventId("6f1c2a9e-4b7d-3c0e-9a51-2d8f7e6b4a10")
+            .setId(123456L)
+            .setRating(4)
+            .build();
+
+    private final ProtobufSerializer<ProductEvent> serializer = new ProtobufSerializer<>();
+    private final Deserializer<ProductEvent> deserializer = createDeserializer();
+
+    @Test
+    void deserialize_ShouldReadProtobufEvent() {
+        ProductEvent event = deserializer.deserialize(TOPIC, new RecordHeaders(), serializer.serialize(TOPIC, EVENT));
+
+        assertEquals(EVENT, event);
+    }
+
+    @Test
+    void deserialize_WithJsonEventFromOlderProducers_ShouldReadKnownFields() {
+        byte[] json = """
+                {"schemaVersion":1,"eventId":"6f1c2a9e-4b7d-3c0e-9a51-2d8f7e6b4a10","id":123456,"rating":4,"comment":null}"""
+                .getBytes(StandardCharsets.UTF_8);
+
+        ProductEvent event = deserializer.deserialize(TOPIC, new RecordHeaders(), json);
+
+        assertEquals(EVENT, event);
+    }
+
+    @Test
+    void deserialize_WithFieldsFromNewerSchema_ShouldReadKnownFields() {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        payload.writeBytes(serializer.serialize(TOPIC, EVENT));
+        // Field 5 as varint 1, unknown to this schema version.
+        payload.write(0x28);
+        payload.write(0x01);
+
+        ProductEvent event = deserializer.deserialize(TOPIC, new RecordHeaders(), payload.toByteArray());
+
+        assertEquals(123456L, event.getId());
+        assertEquals(4, event.getRating());
+    }
+
+    @Test
+    void deserialize_WithMalformedPayload_ShouldReturnNullAndKeepTheError() {
+        RecordHeaders headers = new RecordHeaders();
+
+        ProductEvent event = deserializer.deserialize(TOPIC, headers, new byte[]{0x18, (byte) 0xFF});
+
+        assertNull(event);
+        assertNotNull(headers.lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER));
+    }
+
+    @Test
+    void protobuf_ShouldBeSmallerThanJson() throws Exception {
+        JsonProductEvent jsonEvent = new JsonProductEvent(
+                EVENT.getSchemaVersion(), EVENT.getEventId(), EVENT.getId(), EVENT.getRating());
+
+        assertTrue(serializer.serialize(TOPIC, EVENT).length < new ObjectMapper().writeValueAsBytes(jsonEvent).length);
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "PRODUCT_EVENT_BENCHMARK", matches = "true")
+    void protobuf_ShouldDecodeFasterThanJson() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonProductEvent jsonEvent = new JsonProductEvent(
+                EVENT.getSchemaVersion(), EVENT.getEventId(), EVENT.getId(), EVENT.getRating());
+        int events = 500_000;
+        long checksum = 0;
+
+        for (int i = 0; i < 100_000; i++) {
+            checksum += objectMapper.readValue(objectMapper.writeValueAsBytes(jsonEvent), JsonProductEvent.class).rating();
+            checksum += deserializer.deserialize(TOPIC, new RecordHeaders(), serializer.serialize(TOPIC, EVENT)).getRating();
+        }
+
+        long jsonStart = System.nanoTime();
+        for (int i = 0; i < events; i++) {
+            checksum += objectMapper.readValue(objectMapper.writeValueAsBytes(jsonEvent), JsonProductEvent.class).rating();
+        }
+        double jsonNanos = (double) (System.nanoTime() - jsonStart) / events;
+
+        long protobufStart = System.nanoTime();
+        for (int i = 0; i < events; i++) {
+            checksum += deserializer.deserialize(TOPIC, new RecordHeaders(), serializer.serialize(TOPIC, EVENT)).getRating();
+        }
+        double protobufNanos = (double) (System.nanoTime() - protobufStart) / events;
+
+        assertEquals(4L * (2 * 100_000 + 2 * events), checksum);
+        assertTrue(protobufNanos < jsonNanos, String.format(
+                "encode + decode took %.0f ns/event with protobuf and %.0f ns/event with JSON", protobufNanos, jsonNanos));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Deserializer<ProductEvent> createDeserializer() {
+        KafkaConsumerConfig config = new KafkaConsumerConfig();
+        ReflectionTestUtils.setField(config, "bootstrapServers", "localhost:9092");
+        ReflectionTestUtils.setField(config, "groupId", "product-events-test");
+        ReflectionTestUtils.setField(config, "autoOffsetReset", "earliest");
+        ReflectionTestUtils.setField(config, "maxPollRecords", 500);
+
+        var consumerFactory = (DefaultKafkaConsumerFactory<String, ProductEvent>) config.productEventConsumerFactory();
+        return consumerFactory.getValueDeserializer();
+    }
+
+    // Shape of the JSON payload services exchanged before the protobuf schemas.
+    private record JsonProductEvent(int schemaVersion, String eventId, long id, int rating) {
+    }
+
+}
@@ -3,7 +3,10 @@ package marketplace.serviceproduct.controller;
 import com.marketplace.serviceProduct.controller.CategoryController;
 import com.marketplace.serviceProduct.dto.request.AddCategoryRequest;
 import com.marketplace.serviceProduct.dto.response.CategoryResponse;
+import com.marketplace.serviceProduct.dto.response.ProductCursorPageResponse;
+import com.marketplace.serviceProduct.exception.CategoryException;
 import com.marketplace.serviceProduct.service.CategoryService;
+import com.marketplace.serviceProduct.service.ProductService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -21,6 +24,9 @@ class CategoryControllerTest {
     @Mock
     private CategoryService categoryService;
 
+    @Mock
+    private ProductService productService;
+
     @InjectMocks
     private CategoryController categoryController;
 
@@ -77,4 +83,27 @@ class CategoryControllerTest {
         verify(categoryService).deleteCategory(categoryId);
     }
 
+    @Test
+    void getCategoryProducts_WithExistingCategory_ShouldReturnCursorPage() {
+        ProductCursorPageResponse page = mock(ProductCursorPageResponse.class);
+
+        when(productService.getCategoryProducts(1L, null, 20)).thenReturn(page);
+
+        ResponseEntity<?> result = categoryController.getCategoryProducts(1L, null, 20);
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(page, result.getBody());
+    }
+
+    @Test
+    void getCategoryProducts_WithUnknownCategory_ShouldReturnBadRequest() {
+        when(productService.getCategoryProducts(99L, null, 20))
+                .thenThrow(new CategoryException("Category not found."));
+
+        ResponseEntity<?> result = categoryController.getCategoryProducts(99L, null, 20);
+
+        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+        assertEquals("Category not found.", result.getBody());
+    }
+
 }
@@ -2,9 +2,14 @@ package marketplace.serviceproduct.controller;
 
 import com.marketplace.serviceProduct.controller.ProductController;
 import com.marketplace.serviceProduct.dto.request.AddProductRequest;
+import com.marketplace.serviceProduct.dto.request.ProductFacetRequest;
+import com.marketplace.serviceProduct.dto.request.ProductSearchRequest;
+import com.marketplace.serviceProduct.dto.response.ProductCursorPageResponse;
 import com.marketplace.serviceProduct.dto.response.ProductDetailsResponse;
 import com.marketplace.serviceProduct.dto.response.ProductShortResponse;
+import com.marketplace.serviceProduct.dto.response.SuggestionResponse;
 import com.marketplace.serviceProduct.exception.HttpServletRequestException;
+import com.marketplace.serviceProduct.exception.ProductException;
 import com.marketplace.serviceProduct.service.ProductService;
 import com.marketplace.serviceProduct.service.jwt.JwtService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -127,6 +132,92 @@ class ProductControllerTest {
         verify(productService).getProductShort(pageable);
     }
 
+    @Test
+    void getProductList_WithCursor_ShouldReturnCursorPage() {
+        ProductCursorPageResponse expectedPage = ProductCursorPageResponse.builder()
+                .items(List.of())
+                .nextCursor("MjA")
+                .build();
+
+        when(productService.getProductList("MTA", 10)).thenReturn(expectedPage);
+
+        ResponseEntity<?> response = productController.getProductList("MTA", 10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expectedPage, response.getBody());
+    }
+
+    @Test
+    void getProductList_WithInvalidCursor_ShouldReturnBadRequest() {
+        when(productService.getProductList("bad", 10)).thenThrow(new ProductException("Invalid cursor."));
+
+        ResponseEntity<?> response = productController.getProductList("bad", 10);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Invalid cursor.", response.getBody());
+    }
+
+    @Test
+    void searchProducts_WithFilters_ShouldReturnCursorPage() {
+        ProductSearchRequest expectedRequest = ProductSearchRequest.builder()
+                .query("laptop")
+                .categoryId(5L)
+                .maxPrice(1000)
+                .build();
+        ProductCursorPageResponse expectedPage = ProductCursorPageResponse.builder()
+                .items(List.of())
+                .build();
+
+        when(productService.searchProducts(expectedRequest, "cursor", 20)).thenReturn(expectedPage);
+
+        ResponseEntity<?> response = productController.searchProducts("laptop", 5L, null, null, 1000, "cursor", 20);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expectedPage, response.getBody());
+    }
+
+    @Test
+    void searchProducts_WithBlankQuery_ShouldReturnBadRequest() {
+        when(productService.searchProducts(any(ProductSearchRequest.class), isNull(), eq(20)))
+                .thenThrow(new ProductException("Search query must not be blank."));
+
+        ResponseEntity<?> response = productController.searchProducts(" ", null, null, null, null, null, 20);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Search query must not be blank.", response.getBody());
+    }
+
+    @Test
+    void getFacetedProducts_WithUnknownPriceBucket_ShouldReturnBadRequest() {
+        ProductFacetRequest expectedRequest = ProductFacetRequest.builder()
+                .priceBuckets(List.of("cheap"))
+                .inStockOnly(true)
+                .build();
+
+        when(productService.getFacetedProducts(expectedRequest, null, 20))
+                .thenThrow(new ProductException("Unknown price bucket: cheap"));
+
+        ResponseEntity<?> response = productController.getFacetedProducts(null, List.of("cheap"), null, true, null, 20);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Unknown price bucket: cheap", response.getBody());
+    }
+
+    @Test
+    void suggest_ShouldReturnSuggestions() {
+        SuggestionResponse expected = SuggestionResponse.builder()
+                .products(List.of())
+                .categories(List.of())
+                .build();
+
+        when(productService.suggest("lap", 10)).thenReturn(expected);
+
+        ResponseEntity<?> response = productController.suggest("lap", 10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expected, response.getBody());
+    }
+
     @Test
     void getProductDetail_WithValidProductId_ShouldReturnProduct() {
         Long productId = 1L;
@@ -0,0 +1,145 @@
+package marketplace.serviceproduct.service;
+
+import com.marketplace.serviceProduct.config.TransactionConfig;
+import com.marketplace.serviceProduct.dto.response.ProductCursorPageResponse;
+import com.marketplace.serviceProduct.dto.response.ProductShortResponse;
+import com.marketplace.serviceProduct.repository.CategoryRepository;
+import com.marketplace.serviceProduct.repository.ProductSearchRepository;
+import com.marketplace.serviceProduct.service.ProductService;
+import com.marketplace.serviceProduct.service.cache.CategoryTree;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Import({ProductService.class, ProductSearchRepository.class, TransactionConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CategoryProductsQueryTest extends ProductDataJpaTestSupport {
+
+    private static final int ROOTS = 3;
+    private static final int MIDS_PER_ROOT = 2;
+    private static final int LEAVES_PER_MID = 5;
+    private static final long FIRST_MID_ID = ROOTS + 1;
+    private static final long FIRST_LEAF_ID = FIRST_MID_ID + ROOTS * MIDS_PER_ROOT;
+    private static final int LEAVES = ROOTS * MIDS_PER_ROOT * LEAVES_PER_MID;
+    private static final int PRODUCTS = LEAVES * 10;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        insertCategories();
+        insertProducts();
+
+        when(categoryTreeCache.get()).thenReturn(CategoryTree.build(categoryRepository.findAllRows()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM product_category");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("UPDATE categories SET parent_id = NULL");
+        jdbcTemplate.update("DELETE FROM categories");
+    }
+
+    @Test
+    void getCategoryProducts_WithRootCategory_ShouldIncludeWholeSubtree() {
+        List<Long> expectedIds = LongStream.rangeClosed(1, PRODUCTS)
+                .filter(id -> rootOf(id) == 1L)
+                .boxed()
+                .toList();
+
+        ProductCursorPageResponse firstPage = productService.getCategoryProducts(1L, null, 15);
+
+        assertEquals(expectedIds.subList(0, 15), ids(firstPage));
+        assertNotNull(firstPage.getNextCursor());
+
+        List<Long> walkedIds = new ArrayList<>(ids(firstPage));
+        String cursor = firstPage.getNextCursor();
+        while (cursor != null) {
+            ProductCursorPageResponse page = productService.getCategoryProducts(1L, cursor, 20);
+            walkedIds.addAll(ids(page));
+            cursor = page.getNextCursor();
+        }
+
+        assertEquals(expectedIds, walkedIds);
+    }
+
+    @Test
+    void getCategoryProducts_WithLeafCategory_ShouldReturnOnlyItsProducts() {
+        long leafId = FIRST_LEAF_ID + 7;
+
+        ProductCursorPageResponse page = productService.getCategoryProducts(leafId, null, 100);
+
+        assertEquals(PRODUCTS / LEAVES, page.getItems().size());
+        page.getItems().forEach(item -> assertEquals(leafId, leafOf(item.getId())));
+        assertNull(page.getNextCursor());
+    }
+
+    private void insertCategories() {
+        List<Object[]> rows = new ArrayList<>();
+        for (long root = 1; root <= ROOTS; root++) {
+            rows.add(new Object[]{root, "root-" + root, null, "/" + root + "/"});
+        }
+        for (long mid = FIRST_MID_ID; mid < FIRST_LEAF_ID; mid++) {
+            long root = 1 + (mid - FIRST_MID_ID) / MIDS_PER_ROOT;
+            rows.add(new Object[]{mid, "mid-" + mid, root, "/" + root + "/" + mid + "/"});
+        }
+        for (long leaf = FIRST_LEAF_ID; leaf < FIRST_LEAF_ID + LEAVES; leaf++) {
+            long mid = FIRST_MID_ID + (leaf - FIRST_LEAF_ID) / LEAVES_PER_MID;
+            long root = 1 + (mid - FIRST_MID_ID) / MIDS_PER_ROOT;
+            rows.add(new Object[]{leaf, "leaf-" + leaf, mid, "/" + root + "/" + mid + "/" + leaf + "/"});
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO categories (id, name, parent_id, path) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    private void insertProducts() {
+        List<Object[]> products = new ArrayList<>(PRODUCTS);
+        List<Object[]> links = new ArrayList<>(PRODUCTS);
+        for (long id = 1; id <= PRODUCTS; id++) {
+            products.add(new Object[]{id, "product-" + id, 1000, 10, 1L, "seller"});
+            links.add(new Object[]{id, leafOf(id)});
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO products (id, name, price, count, seller_id, seller_name) VALUES (?, ?, ?, ?, ?, ?)",
+                products);
+        jdbcTemplate.batchUpdate("INSERT INTO product_category (product_id, category_id) VALUES (?, ?)", links);
+    }
+
+    private long leafOf(long productId) {
+        return FIRST_LEAF_ID + productId % LEAVES;
+    }
+
+    private long rootOf(long productId) {
+        return 1 + (productId % LEAVES) / (MIDS_PER_ROOT * LEAVES_PER_MID);
+    }
+
+    private List<Long> ids(ProductCursorPageResponse page) {
+        return page.getItems().stream()
+                .map(ProductShortResponse::getId)
+                .toList();
+    }
+
+}
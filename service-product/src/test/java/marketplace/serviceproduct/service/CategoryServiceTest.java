@@ -1,17 +1,25 @@
 package marketplace.serviceproduct.service;
 
+import com.marketplace.serviceProduct.dto.projection.CategoryRow;
 import com.marketplace.serviceProduct.dto.request.AddCategoryRequest;
 import com.marketplace.serviceProduct.dto.response.CategoryResponse;
 import com.marketplace.serviceProduct.entity.Category;
 import com.marketplace.serviceProduct.exception.CategoryException;
 import com.marketplace.serviceProduct.repository.CategoryRepository;
+import com.marketplace.serviceProduct.repository.ProductRepository;
 import com.marketplace.serviceProduct.service.CategoryService;
+import com.marketplace.serviceProduct.service.cache.CategoryTree;
+import com.marketplace.serviceProduct.service.cache.CategoryTreeCache;
+import com.marketplace.serviceProduct.service.cache.ProductDetailsCache;
+import com.marketplace.serviceProduct.service.cache.ProductFacetCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,6 +32,18 @@ class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductDetailsCache productDetailsCache;
+
+    @Mock
+    private CategoryTreeCache categoryTreeCache;
+
+    @Mock
+    private ProductFacetCache productFacetCache;
+
     @InjectMocks
     private CategoryService categoryService;
 
@@ -37,7 +57,7 @@ class CategoryServiceTest {
         AddCategoryRequest request = createAddCategoryRequest("Electronics", null);
         Category savedCategory = createCategory(CATEGORY_ID, CATEGORY_NAME, null);
 
-        when(categoryRepository.findByName(CATEGORY_NAME)).thenReturn(Optional.empty());
+        when(categoryTreeCache.get()).thenReturn(createCategoryTree(new CategoryRow(PARENT_ID, PARENT_NAME, null)));
         when(categoryRepository.save(any(Category.class))).thenReturn(savedCategory);
 
         CategoryResponse response = categoryService.addCategory(request);
@@ -47,8 +67,8 @@ class CategoryServiceTest {
         assertNull(response.getParentId());
         assertNull(response.getParentName());
 
-        verify(categoryRepository).findByName(CATEGORY_NAME);
         verify(categoryRepository).save(any(Category.class));
+        verify(categoryTreeCache).refreshAfterCommit();
     }
 
     @Test
@@ -57,8 +77,8 @@ class CategoryServiceTest {
         Category parentCategory = createCategory(PARENT_ID, PARENT_NAME, null);
         Category savedCategory = createCategory(CATEGORY_ID, "laptops", parentCategory);
 
-        when(categoryRepository.findByName("laptops")).thenReturn(Optional.empty());
-        when(categoryRepository.findById(PARENT_ID)).thenReturn(Optional.of(parentCategory));
+        when(categoryTreeCache.get()).thenReturn(createCategoryTree(new CategoryRow(PARENT_ID, PARENT_NAME, null)));
+        when(categoryRepository.getReferenceById(PARENT_ID)).thenReturn(parentCategory);
         when(categoryRepository.save(any(Category.class))).thenReturn(savedCategory);
 
         CategoryResponse response = categoryService.addCategory(request);
@@ -67,15 +87,36 @@ class CategoryServiceTest {
         assertEquals(PARENT_ID, response.getParentId());
         assertEquals(PARENT_NAME, response.getParentName());
 
-        verify(categoryRepository).findById(PARENT_ID);
+        verify(categoryRepository).getReferenceById(PARENT_ID);
+        verify(categoryRepository, never()).findById(any());
+    }
+
+    @Test
+    void addCategory_WithParentCategory_ShouldAssignMaterializedPath() {
+        AddCategoryRequest request = createAddCategoryRequest("Laptops", CATEGORY_ID);
+
+        when(categoryTreeCache.get()).thenReturn(createCategoryTree(
+                new CategoryRow(PARENT_ID, PARENT_NAME, null),
+                new CategoryRow(CATEGORY_ID, CATEGORY_NAME, PARENT_ID)
+        ));
+        when(categoryRepository.save(any(Category.class))).thenAnswer(invocation -> {
+            Category category = invocation.getArgument(0);
+            category.setId(3L);
+            return category;
+        });
+
+        categoryService.addCategory(request);
+
+        ArgumentCaptor<Category> savedCategory = ArgumentCaptor.forClass(Category.class);
+        verify(categoryRepository).save(savedCategory.capture());
+        assertEquals("/2/1/3/", savedCategory.getValue().getPath());
     }
 
     @Test
     void addCategory_WhenCategoryAlreadyExists_ShouldThrowException() {
         AddCategoryRequest request = createAddCategoryRequest("Electronics", null);
-        Category existingCategory = createCategory(CATEGORY_ID, CATEGORY_NAME, null);
 
-        when(categoryRepository.findByName(CATEGORY_NAME)).thenReturn(Optional.of(existingCategory));
+        when(categoryTreeCache.get()).thenReturn(createCategoryTree(new CategoryRow(CATEGORY_ID, CATEGORY_NAME, null)));
 
         CategoryException exception = assertThrows(CategoryException.class,
                 () -> categoryService.addCategory(request));
@@ -88,8 +129,7 @@ class CategoryServiceTest {
     void addCategory_WithNonExistentParent_ShouldThrowException() {
         AddCategoryRequest request = createAddCategoryRequest("Laptops", PARENT_ID);
 
-        when(categoryRepository.findByName("laptops")).thenReturn(Optional.empty());
-        when(categoryRepository.findById(PARENT_ID)).thenReturn(Optional.empty());
+        when(categoryTreeCache.get()).thenReturn(createCategoryTree());
 
         CategoryException exception = assertThrows(CategoryException.class,
                 () -> categoryService.addCategory(request));
@@ -103,13 +143,12 @@ class CategoryServiceTest {
         AddCategoryRequest request = createAddCategoryRequest("ELECTRONICS", null);
         Category savedCategory = createCategory(CATEGORY_ID, CATEGORY_NAME, null);
 
-        when(categoryRepository.findByName(CATEGORY_NAME)).thenReturn(Optional.empty());
+        when(categoryTreeCache.get()).thenReturn(createCategoryTree(new CategoryRow(PARENT_ID, PARENT_NAME, null)));
         when(categoryRepository.save(any(Category.class))).thenReturn(savedCategory);
 
         CategoryResponse response = categoryService.addCategory(request);
 
         assertEquals(CATEGORY_NAME, response.getName());
-        verify(categoryRepository).findByName(CATEGORY_NAME);
     }
 
     @Test
@@ -117,12 +156,32 @@ class CategoryServiceTest {
         Category category = createCategory(CATEGORY_ID, CATEGORY_NAME, null);
 
         when(categoryRepository.findById(CATEGORY_ID)).thenReturn(Optional.of(category));
+        when(categoryTreeCache.get()).thenReturn(createCategoryTree(new CategoryRow(CATEGORY_ID, CATEGORY_NAME, null)));
         doNothing().when(categoryRepository).delete(category);
 
         categoryService.deleteCategory(CATEGORY_ID);
 
         verify(categoryRepository).findById(CATEGORY_ID);
         verify(categoryRepository).delete(category);
+        verify(categoryTreeCache).refreshAfterCommit();
+        verify(productFacetCache).invalidateAfterCommit();
+    }
+
+    @Test
+    void deleteCategory_ShouldEvictCachedDetailsOfProductsInSubtree() {
+        Category parentCategory = createCategory(PARENT_ID, PARENT_NAME, null);
+
+        when(categoryRepository.findById(PARENT_ID)).thenReturn(Optional.of(parentCategory));
+        when(categoryTreeCache.get()).thenReturn(createCategoryTree(
+                new CategoryRow(PARENT_ID, PARENT_NAME, null),
+                new CategoryRow(CATEGORY_ID, CATEGORY_NAME, PARENT_ID)
+        ));
+        when(productRepository.findIdsByCategoryIdIn(List.of(PARENT_ID, CATEGORY_ID))).thenReturn(List.of(7L, 8L));
+
+        categoryService.deleteCategory(PARENT_ID);
+
+        verify(categoryRepository).delete(parentCategory);
+        verify(productDetailsCache).evictAll(List.of(7L, 8L));
     }
 
     @Test
@@ -142,6 +201,10 @@ class CategoryServiceTest {
         Category childCategory = createCategory(CATEGORY_ID, CATEGORY_NAME, parentCategory);
 
         when(categoryRepository.findById(CATEGORY_ID)).thenReturn(Optional.of(childCategory));
+        when(categoryTreeCache.get()).thenReturn(createCategoryTree(
+                new CategoryRow(PARENT_ID, PARENT_NAME, null),
+                new CategoryRow(CATEGORY_ID, CATEGORY_NAME, PARENT_ID)
+        ));
         doNothing().when(categoryRepository).delete(childCategory);
 
         assertDoesNotThrow(() -> categoryService.deleteCategory(CATEGORY_ID));
@@ -156,6 +219,10 @@ class CategoryServiceTest {
         return request;
     }
 
+    private CategoryTree createCategoryTree(CategoryRow... rows) {
+        return CategoryTree.build(List.of(rows));
+    }
+
     private Category createCategory(Long id, String name, Category parent) {
         Category category = new Category();
         category.setId(id);
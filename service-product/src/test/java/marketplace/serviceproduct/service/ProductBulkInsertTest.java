@@ -0,0 +1,104 @@
+package marketplace.serviceproduct.service;
+
+import com.marketplace.serviceProduct.config.HibernateConfig;
+import com.marketplace.serviceProduct.config.TransactionConfig;
+import com.marketplace.serviceProduct.dto.request.AddProductRequest;
+import com.marketplace.serviceProduct.dto.response.ProductDetailsResponse;
+import com.marketplace.serviceProduct.entity.Category;
+import com.marketplace.serviceProduct.repository.CategoryRepository;
+import com.marketplace.serviceProduct.repository.ProductRepository;
+import com.marketplace.serviceProduct.repository.ProductSearchRepository;
+import com.marketplace.serviceProduct.service.ProductService;
+import com.marketplace.serviceProduct.service.cache.CategoryTree;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({HibernateConfig.class, ProductService.class, ProductSearchRepository.class, TransactionConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductBulkInsertTest extends ProductDataJpaTestSupport {
+
+    private static final int PRODUCTS = 1_000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM product_category");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM categories");
+    }
+
+    @Test
+    void addProducts_WithThousandProducts_ShouldBatchInserts() {
+        Category phones = saveCategory("phones");
+        Category laptops = saveCategory("laptops");
+        when(categoryTreeCache.get()).thenReturn(CategoryTree.build(categoryRepository.findAllRows()));
+
+        List<AddProductRequest> requests = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            requests.add(request(i, i % 3 == 0
+                    ? List.of(phones.getId(), laptops.getId())
+                    : List.of(phones.getId())));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ProductDetailsResponse> responses = productService.addProducts(1L, "Test Seller", requests);
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(PRODUCTS, responses.size());
+        assertEquals(PRODUCTS, productRepository.count());
+        assertTrue(statements < PRODUCTS / 10, "addProducts took " + statements + " statements");
+    }
+
+    private Category saveCategory(String name) {
+        Category category = new Category();
+        category.setName(name);
+        category = categoryRepository.save(category);
+        category.setPath("/" + category.getId() + "/");
+
+        return categoryRepository.save(category);
+    }
+
+    private AddProductRequest request(int index, List<Long> categoryIds) {
+        AddProductRequest request = new AddProductRequest();
+        request.setName("Product " + index);
+        request.setDescription("Description of product " + index);
+        request.setPrice(100 + index);
+        request.setCount(10);
+        request.setCategoryIds(categoryIds);
+
+        return request;
+    }
+
+}
@@ -0,0 +1,26 @@
+package marketplace.serviceproduct.service;
+
+import com.marketplace.serviceProduct.ServiceProductApplication;
+import com.marketplace.serviceProduct.service.cache.CategoryTreeCache;
+import com.marketplace.serviceProduct.service.cache.ProductDetailsCache;
+import com.marketplace.serviceProduct.service.cache.ProductFacetCache;
+import com.marketplace.serviceProduct.service.cache.ProductSuggestionCache;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+@ContextConfiguration(classes = ServiceProductApplication.class)
+abstract class ProductDataJpaTestSupport {
+
+    @MockitoBean
+    protected ProductDetailsCache productDetailsCache;
+
+    @MockitoBean
+    protected CategoryTreeCache categoryTreeCache;
+
+    @MockitoBean
+    protected ProductSuggestionCache productSuggestionCache;
+
+    @MockitoBean
+    protected ProductFacetCache productFacetCache;
+
+}
@@ -0,0 +1,103 @@
+package marketplace.serviceproduct.service;
+
+import com.marketplace.serviceProduct.config.TransactionConfig;
+import com.marketplace.serviceProduct.dto.response.ProductDetailsResponse;
+import com.marketplace.serviceProduct.entity.Category;
+import com.marketplace.serviceProduct.entity.Product;
+import com.marketplace.serviceProduct.repository.CategoryRepository;
+import com.marketplace.serviceProduct.repository.ProductRepository;
+import com.marketplace.serviceProduct.repository.ProductSearchRepository;
+import com.marketplace.serviceProduct.service.ProductService;
+import com.marketplace.serviceProduct.service.cache.CategoryTree;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ProductService.class, ProductSearchRepository.class, TransactionConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductDetailQueryTest extends ProductDataJpaTestSupport {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        when(productDetailsCache.getOrLoad(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<ProductDetailsResponse>>getArgument(1).get());
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll(categoryRepository.findAll().stream()
+                .filter(category -> category.getParent() == null)
+                .toList());
+    }
+
+    @Test
+    void getProductDetail_ShouldLoadProductCategoriesAndPhotosInTwoStatements() {
+        Category root = saveCategory("electronics", null);
+        Category phones = saveCategory("phones", root);
+        Category smartphones = saveCategory("smartphones", phones);
+        Product product = saveProduct(Set.of(phones, smartphones), List.of("front.jpg", "back.jpg"));
+        when(categoryTreeCache.get()).thenReturn(CategoryTree.build(categoryRepository.findAllRows()));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ProductDetailsResponse response = productService.getProductDetail(product.getId());
+
+        assertEquals(Set.of(phones.getId(), smartphones.getId()), response.getCategoryIds());
+        assertEquals(Set.of("phones", "smartphones"), response.getCategoryNames());
+        assertEquals(List.of("front.jpg", "back.jpg"), response.getPhotoUrls());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private Category saveCategory(String name, Category parent) {
+        Category category = new Category();
+        category.setName(name);
+        category.setParent(parent);
+        return categoryRepository.save(category);
+    }
+
+    private Product saveProduct(Set<Category> categories, List<String> urls) {
+        Product product = new Product();
+        product.setName("Phone");
+        product.setPrice(1000);
+        product.setCount(10);
+        product.setSellerId(10L);
+        product.setSellerName("Seller");
+        product.setCategories(new HashSet<>(categories));
+        product.setUrls(new ArrayList<>(urls));
+        return productRepository.save(product);
+    }
+
+}
@@ -0,0 +1,110 @@
+package marketplace.serviceproduct.service;
+
+import com.marketplace.serviceProduct.config.TransactionConfig;
+import com.marketplace.serviceProduct.dto.response.ProductCursorPageResponse;
+import com.marketplace.serviceProduct.dto.response.ProductShortResponse;
+import com.marketplace.serviceProduct.entity.Product;
+import com.marketplace.serviceProduct.repository.ProductRepository;
+import com.marketplace.serviceProduct.repository.ProductSearchRepository;
+import com.marketplace.serviceProduct.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ProductService.class, ProductSearchRepository.class, TransactionConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductListingQueryTest extends ProductDataJpaTestSupport {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        IntStream.rangeClosed(1, 60).forEach(i -> productRepository.save(createProduct(i)));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void getProductShort_ShouldExecuteSameStatementCountForAnyPageSize() {
+        Page<ProductShortResponse> smallPage = productService.getProductShort(PageRequest.of(0, 5));
+        long smallPageStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        Page<ProductShortResponse> largePage = productService.getProductShort(PageRequest.of(0, 50));
+        long largePageStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(5, smallPage.getContent().size());
+        assertEquals(50, largePage.getContent().size());
+        assertEquals(60, largePage.getTotalElements());
+        assertEquals(2, smallPageStatements);
+        assertEquals(smallPageStatements, largePageStatements);
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    @Test
+    void getProductShort_ShouldReturnFirstPhotoUrl() {
+        ProductShortResponse response = productService.getProductShort(PageRequest.of(0, 1)).getContent().get(0);
+
+        assertEquals("Product 1", response.getName());
+        assertEquals("photo-1.jpg", response.getPhotoUrl());
+        assertEquals(10L, response.getSellerId());
+    }
+
+    @Test
+    void getProductList_ShouldExecuteSingleStatementPerPage() {
+        ProductCursorPageResponse firstPage = productService.getProductList(null, 50);
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        ProductCursorPageResponse lastPage = productService.getProductList(firstPage.getNextCursor(), 50);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(10, lastPage.getItems().size());
+        assertNull(lastPage.getNextCursor());
+    }
+
+    private Product createProduct(int index) {
+        Product product = new Product();
+        product.setName("Product " + index);
+        product.setPrice(1000);
+        product.setCount(10);
+        product.setSellerId(10L);
+        product.setSellerName("Seller");
+        product.setUrls(new ArrayList<>(index % 2 == 1 ? List.of("photo-" + index + ".jpg") : List.of()));
+        return product;
+    }
+
+}
@@ -0,0 +1,192 @@
+package marketplace.serviceproduct.service;
+
+import com.marketplace.events.Events.ProductEvent;
+import com.marketplace.serviceProduct.entity.Product;
+import com.marketplace.serviceProduct.repository.ConsumedOffsetRepository;
+import com.marketplace.serviceProduct.repository.ProcessedEventRepository;
+import com.marketplace.serviceProduct.repository.ProductRepository;
+import com.marketplace.serviceProduct.service.ProductRatingService;
+import com.marketplace.serviceProduct.service.handler.ProcessedEventStore;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:product-ratings;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"
+})
+@Import({ProductRatingService.class, ProcessedEventStore.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductRatingServiceTest extends ProductDataJpaTestSupport {
+
+    private static final String TOPIC = "products";
+
+    @Autowired
+    private ProductRatingService productRatingService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ConsumedOffsetRepository consumedOffsetRepository;
+
+    @Autowired
+    private ProcessedEventRepository processedEventRepository;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        consumedOffsetRepository.deleteAll();
+        processedEventRepository.deleteAll();
+    }
+
+    @Test
+    void applyRatings_ShouldAggregateBurstIntoOneUpdatePerProduct() {
+        Product hot = saveProduct();
+        Product other = saveProduct();
+
+        List<ConsumerRecord<String, ProductEvent>> records = new ArrayList<>();
+        for (int offset = 0; offset < 1000; offset++) {
+            records.add(record(0, offset, hot.getId(), offset % 2 == 0 ? 5 : 4));
+        }
+        records.add(record(1, 0, other.getId(), 2));
+
+        int updatedProducts = productRatingService.applyRatings(records);
+
+        assertEquals(2, updatedProducts);
+        Product updatedHot = productRepository.findById(hot.getId()).orElseThrow();
+        assertEquals(1000, updatedHot.getRatingCount());
+        assertEquals(4500, updatedHot.getTotalRating());
+        assertEquals(4.5, updatedHot.getRating(), 1e-9);
+        assertEquals(2.0, productRepository.findById(other.getId()).orElseThrow().getRating(), 1e-9);
+        verify(productDetailsCache).evictAll(List.of(hot.getId(), other.getId()));
+        verify(productFacetCache).updateRatingsAfterCommit(Map.of(hot.getId(), 4.5, other.getId(), 2.0));
+    }
+
+    @Test
+    void applyRatings_WithRedeliveredRecords_ShouldApplyEachOffsetOnce() {
+        Product product = saveProduct();
+        product.setRatingCount(2);
+        product.setTotalRating(6);
+        product.setRating(3.0);
+        productRepository.save(product);
+
+        productRatingService.applyRatings(List.of(
+                record(0, 10, product.getId(), 5),
+                record(0, 11, product.getId(), 5)
+        ));
+        int updatedProducts = productRatingService.applyRatings(List.of(
+                record(0, 10, product.getId(), 5),
+                record(0, 11, product.getId(), 5),
+                record(0, 12, product.getId(), 1)
+        ));
+
+        assertEquals(1, updatedProducts);
+        Product updated = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(5, updated.getRatingCount());
+        assertEquals(17, updated.getTotalRating());
+        assertEquals(12L, consumedOffsetRepository.findById(TOPIC + "-0").orElseThrow().getLastOffset());
+    }
+
+    @Test
+    void applyRatings_WithConcurrentFirstBatchesOfPartition_ShouldApplyOffsetOnce() throws Exception {
+        Product product = saveProduct();
+        List<ConsumerRecord<String, ProductEvent>> records = List.of(record(0, 0, product.getId(), 5));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return productRatingService.applyRatings(records);
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, productRepository.findById(product.getId()).orElseThrow().getRatingCount());
+        assertEquals(0L, consumedOffsetRepository.findById(TOPIC + "-0").orElseThrow().getLastOffset());
+    }
+
+    @Test
+    void applyRatings_WithReplayedEventIds_ShouldCountEachEventOnce() {
+        Product product = saveProduct();
+
+        productRatingService.applyRatings(List.of(
+                record(0, 0, product.getId(), 5, "event-1"),
+                record(0, 1, product.getId(), 5, "event-1")
+        ));
+        productRatingService.applyRatings(List.of(
+                record(1, 0, product.getId(), 5, "event-1"),
+                record(1, 1, product.getId(), 3, "event-2")
+        ));
+
+        Product updated = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(2, updated.getRatingCount());
+        assertEquals(8, updated.getTotalRating());
+        assertEquals(2, processedEventRepository.count());
+    }
+
+    @Test
+    void applyRatings_WithIllegalRatings_ShouldSkipThemButAdvanceOffset() {
+        Product product = saveProduct();
+
+        int updatedProducts = productRatingService.applyRatings(List.of(
+                record(0, 0, product.getId(), 0),
+                record(0, 1, product.getId(), 6),
+                record(0, 2, 999_999L, 3)
+        ));
+
+        assertEquals(1, updatedProducts);
+        assertNull(productRepository.findById(product.getId()).orElseThrow().getRatingCount());
+        assertEquals(2L, consumedOffsetRepository.findById(TOPIC + "-0").orElseThrow().getLastOffset());
+    }
+
+    private ConsumerRecord<String, ProductEvent> record(int partition, long offset, Long productId, int rating) {
+        return record(partition, offset, productId, rating, null);
+    }
+
+    private ConsumerRecord<String, ProductEvent> record(
+            int partition, long offset, Long productId, int rating, String eventId) {
+        ProductEvent.Builder event = ProductEvent.newBuilder()
+                .setId(productId)
+                .setRating(rating);
+        if (eventId != null) {
+            event.setEventId(eventId);
+        }
+
+        return new ConsumerRecord<>(TOPIC, partition, offset, productId.toString(), event.build());
+    }
+
+    private Product saveProduct() {
+        Product product = new Product();
+        product.setName("Rated Product");
+        product.setPrice(1000);
+        product.setCount(10);
+        product.setSellerId(1L);
+        product.setSellerName("Test Seller");
+
+        return productRepository.save(product);
+    }
+
+}
@@ -0,0 +1,160 @@
+package marketplace.serviceproduct.service;
+
+import com.marketplace.serviceProduct.dto.projection.ProductSearchRow;
+import com.marketplace.serviceProduct.repository.ProductSearchRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Seeds a throwaway schema in the PostgreSQL database given by PRODUCT_SEARCH_BENCHMARK_URL.
+@EnabledIfEnvironmentVariable(named = "PRODUCT_SEARCH_BENCHMARK_URL", matches = ".+")
+class ProductSearchBenchmarkTest {
+
+    private static final String SCHEMA = "product_search_benchmark";
+    private static final int PRODUCT_COUNT = 1_000_000;
+    private static final int CATEGORY_COUNT = 1_000;
+    private static final int WARMUP_QUERIES = 200;
+    private static final int MEASURED_QUERIES = 2_000;
+    private static final long P99_BUDGET_MILLIS = 50;
+    private static final String[] WORDS = {
+            "laptop", "phone", "charger", "cable", "gaming", "wireless", "mouse", "keyboard", "monitor", "headphones",
+            "speaker", "camera", "tablet", "watch", "case", "stand", "adapter", "router", "printer", "lamp"
+    };
+
+    private static SingleConnectionDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static ProductSearchRepository productSearchRepository;
+
+    @BeforeAll
+    static void seedCatalog() {
+        dataSource = new SingleConnectionDataSource(System.getenv("PRODUCT_SEARCH_BENCHMARK_URL"), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        productSearchRepository = new ProductSearchRepository(new NamedParameterJdbcTemplate(dataSource));
+
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("SET search_path TO " + SCHEMA);
+
+        jdbcTemplate.execute("CREATE TABLE categories (id BIGINT PRIMARY KEY, name VARCHAR(255), " +
+                "parent_id BIGINT, path VARCHAR(1024))");
+        jdbcTemplate.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL, " +
+                "description VARCHAR(255), price INTEGER NOT NULL, count INTEGER NOT NULL, seller_id BIGINT NOT NULL, " +
+                "seller_name VARCHAR(255) NOT NULL, rating FLOAT8, rating_count INTEGER, total_rating INTEGER)");
+        jdbcTemplate.execute("CREATE TABLE product_category (product_id BIGINT NOT NULL, category_id BIGINT NOT NULL, " +
+                "PRIMARY KEY (product_id, category_id))");
+        jdbcTemplate.execute("CREATE TABLE product_photos (product_id BIGINT NOT NULL, photo_url VARCHAR(255))");
+
+        jdbcTemplate.execute("INSERT INTO categories (id, name, parent_id, path) " +
+                "SELECT g, 'category ' || g, CASE WHEN g > 10 THEN g % 10 + 1 END, " +
+                "CASE WHEN g > 10 THEN '/' || (g % 10 + 1) || '/' || g || '/' ELSE '/' || g || '/' END " +
+                "FROM generate_series(1, " + CATEGORY_COUNT + ") g");
+
+        String words = "ARRAY['" + String.join("','", WORDS) + "']";
+        jdbcTemplate.execute("INSERT INTO products (id, name, description, price, count, seller_id, seller_name) " +
+                "SELECT g, " +
+                "(" + words + ")[1 + g % 20] || ' ' || (" + words + ")[1 + (g / 20) % 20] || ' ' || g, " +
+                "'The ' || (" + words + ")[1 + (g / 400) % 20] || ' for every ' || (" + words + ")[1 + (g / 7) % 20], " +
+                "100 + g % 100000, 10, 1 + g % 5000, 'seller ' || (1 + g % 5000) " +
+                "FROM generate_series(1, " + PRODUCT_COUNT + ") g");
+        jdbcTemplate.execute("INSERT INTO product_category (product_id, category_id) " +
+                "SELECT g, 11 + g % " + (CATEGORY_COUNT - 10) + " FROM generate_series(1, " + PRODUCT_COUNT + ") g");
+        jdbcTemplate.execute("CREATE INDEX ON product_category (category_id, product_id)");
+        jdbcTemplate.execute("CREATE INDEX ON product_photos (product_id)");
+        jdbcTemplate.execute("CREATE INDEX ON categories (path text_pattern_ops)");
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/product-search-vector.sql"));
+            return null;
+        });
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    static void dropCatalog() {
+        if (jdbcTemplate != null) {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            dataSource.destroy();
+        }
+    }
+
+    @Test
+    void search_OnMillionProductCatalog_ShouldStayWithinLatencyBudget() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            runRandomSearch(random);
+        }
+
+        long[] latencies = new long[MEASURED_QUERIES];
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            long start = System.nanoTime();
+            runRandomSearch(random);
+            latencies[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(latencies);
+        long p50 = TimeUnit.NANOSECONDS.toMillis(latencies[MEASURED_QUERIES / 2]);
+        long p99 = TimeUnit.NANOSECONDS.toMillis(latencies[MEASURED_QUERIES * 99 / 100]);
+
+        assertTrue(p99 < P99_BUDGET_MILLIS, "search latency over " + MEASURED_QUERIES + " queries: p50 " + p50
+                + " ms, p99 " + p99 + " ms exceeds " + P99_BUDGET_MILLIS + " ms");
+    }
+
+    @Test
+    void search_WithPrefixTerms_ShouldRankNameMatchesFirst() {
+        List<ProductSearchRow> results = productSearchRepository.search(
+                "lapt:* & wirel:*", null, null, null, null, null, null, 20);
+
+        assertFalse(results.isEmpty());
+        assertTrue(results.get(0).getName().contains("laptop"));
+        assertTrue(results.get(0).getName().contains("wireless"));
+    }
+
+    @Test
+    void search_WithRankAndIdCursor_ShouldContinueWhereThePreviousPageEnded() {
+        List<ProductSearchRow> expected = productSearchRepository.search(
+                "cab:* & wirel:*", null, null, null, null, null, null, 60);
+
+        List<ProductSearchRow> walked = new ArrayList<>();
+        ProductSearchRow last = null;
+        while (walked.size() < expected.size()) {
+            List<ProductSearchRow> page = productSearchRepository.search("cab:* & wirel:*", null, null, null, null,
+                    last != null ? last.getSearchRank() : null, last != null ? last.getId() : null, 20);
+            walked.addAll(page);
+            last = page.get(page.size() - 1);
+        }
+
+        assertEquals(expected.stream().map(ProductSearchRow::getId).toList(),
+                walked.stream().map(ProductSearchRow::getId).toList());
+    }
+
+    private void runRandomSearch(Random random) {
+        String firstTerm = WORDS[random.nextInt(WORDS.length)];
+        String secondTerm = WORDS[random.nextInt(WORDS.length)];
+        String tsQuery = firstTerm.substring(0, 3 + random.nextInt(firstTerm.length() - 2)) + ":* & " + secondTerm + ":*";
+
+        switch (random.nextInt(4)) {
+            case 0 -> productSearchRepository.search(tsQuery, null, null, null, null, null, null, 21);
+            case 1 -> productSearchRepository.search(tsQuery, "/" + (1 + random.nextInt(10)) + "/%",
+                    null, null, null, null, null, 21);
+            case 2 -> productSearchRepository.search(tsQuery, null, 1L + random.nextInt(5000), null, null, null, null, 21);
+            default -> productSearchRepository.search(tsQuery, null, null, 1_000, 20_000, null, null, 21);
+        }
+    }
+
+}
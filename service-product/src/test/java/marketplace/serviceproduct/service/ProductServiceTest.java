@@ -1,15 +1,32 @@
 package marketplace.serviceproduct.service;
 
 import com.marketplace.serviceProduct.dto.request.AddProductRequest;
+import com.marketplace.serviceProduct.dto.request.ProductFacetRequest;
+import com.marketplace.serviceProduct.dto.request.ProductSearchRequest;
+import com.marketplace.serviceProduct.dto.projection.CategoryRow;
+import com.marketplace.serviceProduct.dto.projection.ProductFacetRow;
+import com.marketplace.serviceProduct.dto.projection.ProductSearchRow;
+import com.marketplace.serviceProduct.dto.projection.ProductShortView;
+import com.marketplace.serviceProduct.dto.projection.ProductSuggestionRow;
+import com.marketplace.serviceProduct.dto.response.ProductCursorPageResponse;
 import com.marketplace.serviceProduct.dto.response.ProductDetailsResponse;
+import com.marketplace.serviceProduct.dto.response.ProductFacetResponse;
 import com.marketplace.serviceProduct.dto.response.ProductShortResponse;
+import com.marketplace.serviceProduct.dto.response.SuggestionResponse;
 import com.marketplace.serviceProduct.entity.Category;
 import com.marketplace.serviceProduct.entity.Product;
 import com.marketplace.serviceProduct.exception.CategoryException;
 import com.marketplace.serviceProduct.exception.ProductException;
 import com.marketplace.serviceProduct.repository.CategoryRepository;
 import com.marketplace.serviceProduct.repository.ProductRepository;
+import com.marketplace.serviceProduct.repository.ProductSearchRepository;
 import com.marketplace.serviceProduct.service.ProductService;
+import com.marketplace.serviceProduct.service.cache.CategoryTree;
+import com.marketplace.serviceProduct.service.cache.CategoryTreeCache;
+import com.marketplace.serviceProduct.service.cache.ProductDetailsCache;
+import com.marketplace.serviceProduct.service.cache.ProductFacetCache;
+import com.marketplace.serviceProduct.service.cache.ProductFacetIndex;
+import com.marketplace.serviceProduct.service.cache.ProductSuggestionCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -20,8 +37,11 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,9 +52,27 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductSearchRepository productSearchRepository;
+
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ProductDetailsCache productDetailsCache;
+
+    @Mock
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    @Mock
+    private CategoryTreeCache categoryTreeCache;
+
+    @Mock
+    private ProductSuggestionCache productSuggestionCache;
+
+    @Mock
+    private ProductFacetCache productFacetCache;
+
     @InjectMocks
     private ProductService productService;
 
@@ -47,11 +85,11 @@ class ProductServiceTest {
     @Test
     void addProducts_WithValidRequest_ShouldCreateProducts() {
         AddProductRequest request = createAddProductRequest();
-        Set<Long> categoryIds = Set.of(CATEGORY_ID_1, CATEGORY_ID_2);
-        Set<Category> categories = createCategories();
         Product savedProduct = createProduct();
 
-        when(categoryRepository.findAllByIdIn(categoryIds)).thenReturn(categories);
+        when(categoryTreeCache.get()).thenReturn(createCategoryTree());
+        when(categoryRepository.getReferenceById(anyLong()))
+                .thenAnswer(invocation -> createCategory(invocation.getArgument(0)));
         when(productRepository.saveAll(anyList())).thenReturn(List.of(savedProduct));
 
         List<ProductDetailsResponse> responses = productService.addProducts(
@@ -61,21 +99,25 @@ class ProductServiceTest {
         assertNotNull(responses);
         assertEquals(1, responses.size());
         assertEquals(PRODUCT_ID, responses.get(0).getId());
-        verify(categoryRepository).findAllByIdIn(categoryIds);
+        assertEquals(Set.of("category 1", "category 2"), responses.get(0).getCategoryNames());
+        verify(categoryRepository, never()).findAll();
         verify(productRepository).saveAll(anyList());
+        verify(productSuggestionCache).upsertAfterCommit(anyList());
+        verify(productFacetCache).addAllAfterCommit(anyList(), argThat(categoryIds ->
+                Set.copyOf(categoryIds.get(PRODUCT_ID)).equals(Set.of(CATEGORY_ID_1, CATEGORY_ID_2))));
     }
 
     @Test
     void addProducts_WithNonExistentCategories_ShouldThrowException() {
         AddProductRequest request = createAddProductRequest();
-        Set<Long> requestedIds = Set.of(CATEGORY_ID_1, CATEGORY_ID_2);
 
-        when(categoryRepository.findAllByIdIn(requestedIds)).thenReturn(Set.of());
+        when(categoryTreeCache.get()).thenReturn(CategoryTree.build(List.of()));
 
         CategoryException exception = assertThrows(CategoryException.class,
                 () -> productService.addProducts(SELLER_ID, SELLER_NAME, List.of(request)));
 
         assertTrue(exception.getMessage().contains("Categories not found"));
+        verifyNoInteractions(productRepository);
     }
 
     @Test
@@ -99,13 +141,21 @@ class ProductServiceTest {
         assertEquals("Product not found.", exception.getMessage());
     }
 
+    @Test
+    void productExists_ShouldUseExistenceQueryWithoutLoadingProduct() {
+        when(productRepository.existsById(PRODUCT_ID)).thenReturn(true);
+
+        assertTrue(productService.productExists(PRODUCT_ID));
+
+        verify(productRepository, never()).findById(any());
+    }
+
     @Test
     void getProductShort_ShouldReturnPageOfProducts() {
         Pageable pageable = PageRequest.of(0, 10);
-        Product product = createProduct();
-        Page<Product> productPage = new PageImpl<>(List.of(product));
+        Page<ProductShortView> productPage = new PageImpl<>(List.of(createShortView(PRODUCT_ID)));
 
-        when(productRepository.findAll(pageable)).thenReturn(productPage);
+        when(productRepository.findShortViews(pageable)).thenReturn(productPage);
 
         Page<ProductShortResponse> result = productService.getProductShort(pageable);
 
@@ -115,9 +165,172 @@ class ProductServiceTest {
     }
 
     @Test
-    void getProductDetail_WithExistingProduct_ShouldReturnDetails() {
+    void getProductList_WithMoreProductsThanSize_ShouldReturnNextCursor() {
+        ProductShortView first = createShortView(PRODUCT_ID);
+        ProductShortView second = createShortView(PRODUCT_ID + 1);
+
+        when(productRepository.findShortViewsAfter(0L, 2)).thenReturn(List.of(first, second));
+        when(productRepository.findShortViewsAfter(PRODUCT_ID, 2)).thenReturn(List.of(second));
+
+        ProductCursorPageResponse firstPage = productService.getProductList(null, 1);
+        ProductCursorPageResponse secondPage = productService.getProductList(firstPage.getNextCursor(), 1);
+
+        assertEquals(1, firstPage.getItems().size());
+        assertEquals(PRODUCT_ID, firstPage.getItems().get(0).getId());
+        assertNotNull(firstPage.getNextCursor());
+        assertEquals(PRODUCT_ID + 1, secondPage.getItems().get(0).getId());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void getProductList_WithInvalidCursor_ShouldThrowException() {
+        ProductException exception = assertThrows(ProductException.class,
+                () -> productService.getProductList("not-a-cursor", 20));
+
+        assertEquals("Invalid cursor.", exception.getMessage());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void searchProducts_ShouldBuildPrefixQueryAndRestrictToCategorySubtree() {
+        ProductSearchRequest request = ProductSearchRequest.builder()
+                .query("Gaming  laptop-15")
+                .categoryId(CATEGORY_ID_2)
+                .sellerId(SELLER_ID)
+                .minPrice(100)
+                .maxPrice(5000)
+                .build();
+
+        List<ProductSearchRow> hits = List.of(
+                createSearchRow(PRODUCT_ID, 0.5f), createSearchRow(PRODUCT_ID + 1, 0.25f), createSearchRow(PRODUCT_ID + 2, 0.1f));
+
+        when(categoryTreeCache.get()).thenReturn(createCategoryTree());
+        when(productSearchRepository.search("gaming:* & laptop:* & 15:*", "/10/20/%", SELLER_ID, 100, 5000, null, null, 3))
+                .thenReturn(hits);
+
+        ProductCursorPageResponse result = productService.searchProducts(request, null, 2);
+
+        assertEquals(2, result.getItems().size());
+        assertEquals(PRODUCT_ID, result.getItems().get(0).getId());
+        assertNotNull(result.getNextCursor());
+
+        productService.searchProducts(request, result.getNextCursor(), 2);
+
+        verify(productSearchRepository).search(
+                "gaming:* & laptop:* & 15:*", "/10/20/%", SELLER_ID, 100, 5000, 0.25f, PRODUCT_ID + 1, 3);
+    }
+
+    @Test
+    void searchProducts_WithIdOnlyCursor_ShouldThrowException() {
+        ProductSearchRequest request = ProductSearchRequest.builder().query("laptop").build();
+
+        ProductException exception = assertThrows(ProductException.class,
+                () -> productService.searchProducts(request, Base64.getUrlEncoder().encodeToString("42".getBytes()), 20));
+
+        assertEquals("Invalid cursor.", exception.getMessage());
+        verifyNoInteractions(productSearchRepository);
+    }
+
+    @Test
+    void searchProducts_WithBlankQuery_ShouldThrowException() {
+        ProductSearchRequest request = ProductSearchRequest.builder().query(" -- ").build();
+
+        ProductException exception = assertThrows(ProductException.class,
+                () -> productService.searchProducts(request, null, 20));
+
+        assertEquals("Search query must not be blank.", exception.getMessage());
+        verifyNoInteractions(productSearchRepository);
+    }
+
+    @Test
+    void searchProducts_WithInvalidPriceRange_ShouldThrowException() {
+        ProductSearchRequest request = ProductSearchRequest.builder()
+                .query("laptop")
+                .minPrice(500)
+                .maxPrice(100)
+                .build();
+
+        ProductException exception = assertThrows(ProductException.class,
+                () -> productService.searchProducts(request, null, 20));
+
+        assertEquals("Invalid price range.", exception.getMessage());
+        verifyNoInteractions(productSearchRepository);
+    }
+
+    @Test
+    void getFacetedProducts_ShouldReturnPageAndCountsFromFacetIndex() {
+        CategoryTree categoryTree = createCategoryTree();
+        ProductFacetIndex facetIndex = new ProductFacetIndex(new int[]{1000});
+        facetIndex.add(new ProductFacetRow(PRODUCT_ID, 500, 1, 4.5), List.of(CATEGORY_ID_2), categoryTree);
+        facetIndex.add(new ProductFacetRow(PRODUCT_ID + 1, 1500, 0, 3.0), List.of(CATEGORY_ID_2), categoryTree);
+        ProductShortView view = createShortView(PRODUCT_ID);
+
+        when(categoryTreeCache.get()).thenReturn(categoryTree);
+        when(productFacetCache.get()).thenReturn(facetIndex);
+        when(productRepository.findShortViewsByIdIn(List.of(PRODUCT_ID))).thenReturn(List.of(view));
+
+        ProductFacetResponse response = productService.getFacetedProducts(ProductFacetRequest.builder()
+                .categoryId(CATEGORY_ID_1)
+                .priceBuckets(List.of("0-999"))
+                .build(), null, 20);
+
+        assertEquals(1, response.getTotal());
+        assertEquals(PRODUCT_ID, response.getItems().get(0).getId());
+        assertNull(response.getNextCursor());
+        assertEquals(Map.of(CATEGORY_ID_2, 1), response.getCategoryCounts());
+        assertEquals(Map.of("0-999", 1, "1000+", 1), response.getPriceBucketCounts());
+        assertEquals(1, response.getMinRatingCounts().get(4));
+        assertEquals(1, response.getInStockCount());
+    }
+
+    @Test
+    void getFacetedProducts_WithUnknownPriceBucket_ShouldThrowException() {
+        when(categoryTreeCache.get()).thenReturn(createCategoryTree());
+        when(productFacetCache.get()).thenReturn(new ProductFacetIndex(new int[]{1000}));
+
+        ProductException exception = assertThrows(ProductException.class,
+                () -> productService.getFacetedProducts(ProductFacetRequest.builder()
+                        .priceBuckets(List.of("cheap"))
+                        .build(), null, 20));
+
+        assertEquals("Unknown price bucket: cheap", exception.getMessage());
+    }
+
+    @Test
+    void suggest_ShouldReturnProductsByRatingAndCategoriesByNamePrefix() {
+        when(categoryTreeCache.get()).thenReturn(createCategoryTree());
+        when(productSuggestionCache.suggest("cat", 5)).thenReturn(List.of(
+                new ProductSuggestionRow(PRODUCT_ID, "Cat Toy", 4.8),
+                new ProductSuggestionRow(PRODUCT_ID + 1, "Cat Bed", 4.1)
+        ));
+
+        SuggestionResponse response = productService.suggest(" Cat ", 5);
+
+        assertEquals(List.of(PRODUCT_ID, PRODUCT_ID + 1), response.getProducts().stream()
+                .map(ProductShortResponse::getId)
+                .toList());
+        assertEquals(2, response.getCategories().size());
+        assertEquals("category 1", response.getCategories().get(1).getParentName());
+    }
+
+    @Test
+    void suggest_WithBlankQuery_ShouldReturnEmptySuggestions() {
+        SuggestionResponse response = productService.suggest("  ", 10);
+
+        assertTrue(response.getProducts().isEmpty());
+        assertTrue(response.getCategories().isEmpty());
+        verifyNoInteractions(productSuggestionCache);
+    }
+
+    @Test
+    void getProductDetail_WithCacheMiss_ShouldLoadDetailsInReadOnlyTransaction() {
         Product product = createProduct();
-        when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.of(product));
+        when(productRepository.findWithCategoriesById(PRODUCT_ID)).thenReturn(Optional.of(product));
+        when(productDetailsCache.getOrLoad(eq(PRODUCT_ID), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<ProductDetailsResponse>>getArgument(1).get());
+        when(readOnlyTransactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(categoryTreeCache.get()).thenReturn(createCategoryTree());
 
         ProductDetailsResponse response = productService.getProductDetail(PRODUCT_ID);
 
@@ -126,6 +339,17 @@ class ProductServiceTest {
         assertEquals(2, response.getCategoryIds().size());
     }
 
+    @Test
+    void getProductDetail_WithCacheHit_ShouldNotTouchDatabase() {
+        ProductDetailsResponse cached = ProductDetailsResponse.builder().id(PRODUCT_ID).build();
+        when(productDetailsCache.getOrLoad(eq(PRODUCT_ID), any())).thenReturn(cached);
+
+        ProductDetailsResponse response = productService.getProductDetail(PRODUCT_ID);
+
+        assertSame(cached, response);
+        verifyNoInteractions(productRepository, readOnlyTransactionTemplate);
+    }
+
     @Test
     void validateProductOwnership_WithValidOwner_ShouldNotThrowException() {
         Product product = createProduct();
@@ -157,6 +381,7 @@ class ProductServiceTest {
 
         assertTrue(product.getUrls().containsAll(newPhotos));
         verify(productRepository).save(product);
+        verify(productDetailsCache).evict(PRODUCT_ID);
     }
 
     private AddProductRequest createAddProductRequest() {
@@ -170,6 +395,19 @@ class ProductServiceTest {
         return request;
     }
 
+    private CategoryTree createCategoryTree() {
+        return CategoryTree.build(List.of(
+                new CategoryRow(CATEGORY_ID_1, "category 1", null),
+                new CategoryRow(CATEGORY_ID_2, "category 2", CATEGORY_ID_1)
+        ));
+    }
+
+    private Category createCategory(Long id) {
+        Category category = new Category();
+        category.setId(id);
+        return category;
+    }
+
     private Set<Category> createCategories() {
         Category category1 = new Category();
         category1.setId(CATEGORY_ID_1);
@@ -182,6 +420,16 @@ class ProductServiceTest {
         return Set.of(category1, category2);
     }
 
+    private ProductSearchRow createSearchRow(Long id, float searchRank) {
+        return new ProductSearchRow(id, "product " + id, null, 1000, SELLER_ID, null, searchRank);
+    }
+
+    private ProductShortView createShortView(Long id) {
+        ProductShortView view = mock(ProductShortView.class);
+        when(view.getId()).thenReturn(id);
+        return view;
+    }
+
     private Product createProduct() {
         Product product = new Product();
         product.setId(PRODUCT_ID);
@@ -0,0 +1,217 @@
+package marketplace.serviceproduct.service;
+
+import com.marketplace.serviceProduct.dto.stock.StockReservationResult;
+import com.marketplace.serviceProduct.entity.Product;
+import com.marketplace.serviceProduct.repository.ProductRepository;
+import com.marketplace.serviceProduct.service.StockReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@Import(StockReservationService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationServiceTest extends ProductDataJpaTestSupport {
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void reserve_WithSufficientStock_ShouldReturnPostDecrementCount() {
+        Product product = saveProduct(10);
+
+        StockReservationResult result = stockReservationService.reserve(product.getId(), 8);
+
+        assertTrue(result.isProductExist());
+        assertTrue(result.isReserved());
+        assertEquals(2, result.getAvailableCount());
+        assertEquals(1000, result.getCurrentPrice());
+        assertEquals(2, findCount(product.getId()));
+        verify(productDetailsCache).evict(product.getId());
+        verify(productFacetCache).updateStockAfterCommit(Map.of(product.getId(), 2));
+    }
+
+    @Test
+    void reserve_WithInsufficientStock_ShouldNotChangeCount() {
+        Product product = saveProduct(5);
+
+        StockReservationResult result = stockReservationService.reserve(product.getId(), 6);
+
+        assertTrue(result.isProductExist());
+        assertFalse(result.isReserved());
+        assertEquals(5, result.getAvailableCount());
+        assertEquals(5, findCount(product.getId()));
+        verify(productDetailsCache, never()).evict(any());
+    }
+
+    @Test
+    void reserve_WithNonPositiveCount_ShouldNotChangeCount() {
+        Product product = saveProduct(5);
+
+        StockReservationResult result = stockReservationService.reserve(product.getId(), -3);
+
+        assertFalse(result.isReserved());
+        assertEquals(5, findCount(product.getId()));
+    }
+
+    @Test
+    void reserve_WithNonExistentProduct_ShouldReturnNotFound() {
+        StockReservationResult result = stockReservationService.reserve(999L, 1);
+
+        assertFalse(result.isProductExist());
+        assertFalse(result.isReserved());
+    }
+
+    @Test
+    void release_ShouldReturnStock() {
+        Product product = saveProduct(5);
+
+        assertTrue(stockReservationService.release(product.getId(), 3));
+        assertEquals(8, findCount(product.getId()));
+        verify(productFacetCache).updateStockAfterCommit(Map.of(product.getId(), 8));
+        assertFalse(stockReservationService.release(999L, 3));
+    }
+
+    @Test
+    void reserveAll_WithMixedBasket_ShouldReserveOnlySufficientProducts() {
+        Product plenty = saveProduct(10);
+        Product scarce = saveProduct(1);
+
+        Map<Long, Integer> requestedCounts = new LinkedHashMap<>();
+        requestedCounts.put(plenty.getId(), 4);
+        requestedCounts.put(scarce.getId(), 2);
+        requestedCounts.put(999L, 1);
+
+        Map<Long, StockReservationResult> results = stockReservationService.reserveAll(requestedCounts);
+
+        assertEquals(3, results.size());
+
+        StockReservationResult plentyResult = results.get(plenty.getId());
+        assertTrue(plentyResult.isReserved());
+        assertEquals(6, plentyResult.getAvailableCount());
+
+        StockReservationResult scarceResult = results.get(scarce.getId());
+        assertTrue(scarceResult.isProductExist());
+        assertFalse(scarceResult.isReserved());
+        assertEquals(1, scarceResult.getAvailableCount());
+
+        assertFalse(results.get(999L).isProductExist());
+
+        assertEquals(6, findCount(plenty.getId()));
+        assertEquals(1, findCount(scarce.getId()));
+        verify(productFacetCache).updateStockAfterCommit(Map.of(plenty.getId(), 6));
+    }
+
+    @Test
+    void reserveAll_WithEmptyBasket_ShouldReturnEmptyResult() {
+        assertTrue(stockReservationService.reserveAll(Map.of()).isEmpty());
+    }
+
+    @Test
+    void reserveAll_UnderContentionOnHotProduct_ShouldNeverOversell() throws Exception {
+        Product product = saveProduct(300);
+        int threads = 8;
+        int attemptsPerThread = 50;
+
+        AtomicInteger reserved = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                for (int attempt = 0; attempt < attemptsPerThread; attempt++) {
+                    if (stockReservationService.reserveAll(Map.of(product.getId(), 1)).get(product.getId()).isReserved()) {
+                        reserved.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(300, reserved.get());
+        assertEquals(0, findCount(product.getId()));
+    }
+
+    @Test
+    void reserve_UnderContentionOnHotProduct_ShouldNeverOversell() throws Exception {
+        int initialStock = 500;
+        int threads = 16;
+        int attemptsPerThread = 50;
+        Product product = saveProduct(initialStock);
+
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger negativeAvailability = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int attempt = 0; attempt < attemptsPerThread; attempt++) {
+                    StockReservationResult result = stockReservationService.reserve(product.getId(), 1);
+                    if (result.isReserved()) {
+                        reserved.incrementAndGet();
+                    }
+                    if (result.getAvailableCount() < 0) {
+                        negativeAvailability.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(initialStock, reserved.get());
+        assertEquals(0, negativeAvailability.get());
+        assertEquals(0, findCount(product.getId()));
+    }
+
+    private Product saveProduct(int count) {
+        Product product = new Product();
+        product.setName("Hot Product");
+        product.setPrice(1000);
+        product.setCount(count);
+        product.setSellerId(1L);
+        product.setSellerName("Test Seller");
+
+        return productRepository.save(product);
+    }
+
+    private int findCount(Long productId) {
+        return productRepository.findStockById(productId).orElseThrow().getCount();
+    }
+
+}
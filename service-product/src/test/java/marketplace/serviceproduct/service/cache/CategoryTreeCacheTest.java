@@ -0,0 +1,98 @@
+package marketplace.serviceproduct.service.cache;
+
+import com.marketplace.serviceProduct.dto.projection.CategoryRow;
+import com.marketplace.serviceProduct.repository.CategoryRepository;
+import com.marketplace.serviceProduct.service.cache.CategoryTree;
+import com.marketplace.serviceProduct.service.cache.CategoryTreeCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryTreeCacheTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    private CategoryTreeCache categoryTreeCache;
+
+    @BeforeEach
+    void setUp() {
+        categoryTreeCache = new CategoryTreeCache(categoryRepository, redisTemplate);
+        ReflectionTestUtils.setField(categoryTreeCache, "redisSync", true);
+        ReflectionTestUtils.setField(categoryTreeCache, "maxAgeMs", 300_000L);
+    }
+
+    @Test
+    void get_ShouldLoadSnapshotOnce() {
+        when(categoryRepository.findAllRows()).thenReturn(List.of(new CategoryRow(1L, "electronics", null)));
+
+        CategoryTree first = categoryTreeCache.get();
+        CategoryTree second = categoryTreeCache.get();
+
+        assertSame(first, second);
+        verify(categoryRepository, times(1)).findAllRows();
+    }
+
+    @Test
+    void get_WhenSnapshotIsOlderThanMaxAge_ShouldReload() {
+        ReflectionTestUtils.setField(categoryTreeCache, "maxAgeMs", 0L);
+        when(categoryRepository.findAllRows())
+                .thenReturn(List.of(new CategoryRow(1L, "electronics", null)))
+                .thenReturn(List.of(new CategoryRow(1L, "electronics", null), new CategoryRow(2L, "phones", 1L)));
+
+        assertEquals(1, categoryTreeCache.get().size());
+        assertEquals(2, categoryTreeCache.get().size());
+        verify(categoryRepository, times(2)).findAllRows();
+    }
+
+    @Test
+    void refreshAfterCommit_ShouldReloadAndPublishOnlyAfterCommit() {
+        when(categoryRepository.findAllRows())
+                .thenReturn(List.of(new CategoryRow(1L, "electronics", null)))
+                .thenReturn(List.of(new CategoryRow(1L, "electronics", null), new CategoryRow(2L, "phones", 1L)));
+        categoryTreeCache.get();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            categoryTreeCache.refreshAfterCommit();
+            assertEquals(1, categoryTreeCache.get().size());
+            verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(2, categoryTreeCache.get().size());
+        verify(redisTemplate).convertAndSend(eq(CategoryTreeCache.CHANGES_CHANNEL), anyString());
+    }
+
+    @Test
+    void onRemoteChange_FromOtherInstance_ShouldInvalidateSnapshot() {
+        when(categoryRepository.findAllRows()).thenReturn(List.of());
+        categoryTreeCache.get();
+
+        categoryTreeCache.onRemoteChange("other-instance");
+        categoryTreeCache.get();
+
+        verify(categoryRepository, times(2)).findAllRows();
+    }
+
+}
@@ -0,0 +1,81 @@
+package marketplace.serviceproduct.service.cache;
+
+import com.marketplace.serviceProduct.dto.projection.CategoryRow;
+import com.marketplace.serviceProduct.service.cache.CategoryNode;
+import com.marketplace.serviceProduct.service.cache.CategoryTree;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryTreeTest {
+
+    private final CategoryTree categoryTree = CategoryTree.build(List.of(
+            new CategoryRow(1L, "electronics", null),
+            new CategoryRow(2L, "phones", 1L),
+            new CategoryRow(3L, "smartphones", 2L),
+            new CategoryRow(4L, "laptops", 1L),
+            new CategoryRow(5L, "books", null)
+    ));
+
+    @Test
+    void build_ShouldPrecomputeAncestorsRootFirst() {
+        CategoryNode smartphones = categoryTree.findById(3L).orElseThrow();
+
+        assertEquals(List.of(1L, 2L), smartphones.getAncestorIds());
+        assertEquals(2L, smartphones.getParentId());
+        assertEquals("/1/2/3/", smartphones.getPath());
+        assertEquals("/5/", categoryTree.findById(5L).orElseThrow().getPath());
+    }
+
+    @Test
+    void build_ShouldPrecomputeChildrenAndDescendants() {
+        CategoryNode electronics = categoryTree.findById(1L).orElseThrow();
+
+        assertEquals(List.of(2L, 4L), electronics.getChildIds());
+        assertEquals(Set.of(2L, 3L, 4L), electronics.getDescendantIds());
+        assertTrue(categoryTree.findById(5L).orElseThrow().getDescendantIds().isEmpty());
+    }
+
+    @Test
+    void findByName_ShouldReturnNode() {
+        assertEquals(4L, categoryTree.findByName("laptops").orElseThrow().getId());
+        assertTrue(categoryTree.findByName("toys").isEmpty());
+    }
+
+    @Test
+    void findByNamePrefix_ShouldReturnNamesInOrderUpToLimit() {
+        assertEquals(List.of(3L), categoryTree.findByNamePrefix("sm", 10).stream().map(CategoryNode::getId).toList());
+        assertEquals(List.of(5L), categoryTree.findByNamePrefix("b", 10).stream().map(CategoryNode::getId).toList());
+        assertEquals(1, categoryTree.findByNamePrefix("", 1).size());
+        assertTrue(categoryTree.findByNamePrefix("tv", 10).isEmpty());
+    }
+
+    @Test
+    void findMissingIds_ShouldReturnOnlyUnknownIds() {
+        assertEquals(Set.of(9L), categoryTree.findMissingIds(List.of(1L, 3L, 9L)));
+    }
+
+    @Test
+    void getSubtreeIds_ShouldIncludeCategoryAndDescendants() {
+        List<Long> subtreeIds = categoryTree.getSubtreeIds(2L);
+
+        assertEquals(2L, subtreeIds.get(0));
+        assertEquals(Set.of(2L, 3L), Set.copyOf(subtreeIds));
+        assertTrue(categoryTree.getSubtreeIds(99L).isEmpty());
+    }
+
+    @Test
+    void build_WithCycle_ShouldTerminate() {
+        CategoryTree cyclicTree = CategoryTree.build(List.of(
+                new CategoryRow(1L, "a", 2L),
+                new CategoryRow(2L, "b", 1L)
+        ));
+
+        assertEquals(List.of(2L), cyclicTree.findById(1L).orElseThrow().getAncestorIds());
+        assertEquals(Set.of(2L), cyclicTree.findById(1L).orElseThrow().getDescendantIds());
+    }
+
+}
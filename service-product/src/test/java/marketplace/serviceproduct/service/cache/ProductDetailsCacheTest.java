@@ -0,0 +1,204 @@
+package marketplace.serviceproduct.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marketplace.serviceProduct.dto.response.ProductDetailsResponse;
+import com.marketplace.serviceProduct.exception.ProductException;
+import com.marketplace.serviceProduct.service.cache.ProductDetailsCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductDetailsCacheTest {
+
+    private static final Long PRODUCT_ID = 100L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private ProductDetailsCache productDetailsCache;
+
+    @BeforeEach
+    void setUp() {
+        productDetailsCache = new ProductDetailsCache(redisTemplate, objectMapper);
+        ReflectionTestUtils.setField(productDetailsCache, "ttlSeconds", 600L);
+    }
+
+    @Test
+    void getOrLoad_WithCachedDetails_ShouldNotCallLoader() throws Exception {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("product:details:100"))
+                .thenReturn(objectMapper.writeValueAsString(createResponse()));
+
+        ProductDetailsResponse response = productDetailsCache.getOrLoad(PRODUCT_ID, () -> {
+            throw new AssertionError("loader must not be called");
+        });
+
+        assertEquals("Phone", response.getName());
+        assertEquals(Set.of(1L, 2L), response.getCategoryIds());
+    }
+
+    @Test
+    void getOrLoad_WithCacheMiss_ShouldLoadAndStoreWithTtl() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        ProductDetailsResponse response = productDetailsCache.getOrLoad(PRODUCT_ID, this::createResponse);
+
+        assertEquals(PRODUCT_ID, response.getId());
+        verify(valueOperations).set(eq("product:details:100"), contains("\"name\":\"Phone\""), eq(Duration.ofSeconds(600)));
+    }
+
+    @Test
+    void getOrLoad_WhenRedisIsDown_ShouldFallBackToLoader() {
+        when(redisTemplate.opsForValue()).thenThrow(new RedisConnectionFailureException("down"));
+
+        ProductDetailsResponse response = productDetailsCache.getOrLoad(PRODUCT_ID, this::createResponse);
+
+        assertEquals(PRODUCT_ID, response.getId());
+    }
+
+    @Test
+    void getOrLoad_WithConcurrentMisses_ShouldLoadOnce() throws Exception {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        int threads = 32;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderEntered = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<ProductDetailsResponse>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> productDetailsCache.getOrLoad(PRODUCT_ID, () -> {
+                loads.incrementAndGet();
+                loaderEntered.countDown();
+                awaitQuietly(releaseLoader);
+                return createResponse();
+            })));
+
+            assertTrue(loaderEntered.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < threads; i++) {
+                futures.add(executor.submit(() -> productDetailsCache.getOrLoad(PRODUCT_ID, () -> {
+                    loads.incrementAndGet();
+                    return createResponse();
+                })));
+            }
+
+            Thread.sleep(100);
+            releaseLoader.countDown();
+
+            for (Future<ProductDetailsResponse> future : futures) {
+                assertEquals(PRODUCT_ID, future.get(5, TimeUnit.SECONDS).getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getOrLoad_WhenLoaderFails_ShouldPropagateAndAllowRetry() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        assertThrows(ProductException.class, () -> productDetailsCache.getOrLoad(PRODUCT_ID, () -> {
+            throw new ProductException("Product not found.");
+        }));
+
+        assertEquals(PRODUCT_ID, productDetailsCache.getOrLoad(PRODUCT_ID, this::createResponse).getId());
+    }
+
+    @Test
+    void getOrLoad_WhenEvictedDuringLoad_ShouldNotStoreLoadedDetails() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        ProductDetailsResponse response = productDetailsCache.getOrLoad(PRODUCT_ID, () -> {
+            productDetailsCache.evict(PRODUCT_ID);
+            return createResponse();
+        });
+
+        assertEquals(PRODUCT_ID, response.getId());
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void getOrLoad_WhenEvictedDuringWrite_ShouldDeleteWrittenDetails() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        doAnswer(invocation -> {
+            productDetailsCache.evict(PRODUCT_ID);
+            return null;
+        }).when(valueOperations).set(anyString(), anyString(), any(Duration.class));
+
+        productDetailsCache.getOrLoad(PRODUCT_ID, this::createResponse);
+
+        verify(redisTemplate, times(2)).delete(List.of("product:details:100"));
+    }
+
+    @Test
+    void evict_WithoutTransaction_ShouldDeleteImmediately() {
+        productDetailsCache.evict(PRODUCT_ID);
+
+        verify(redisTemplate).delete(List.of("product:details:100"));
+    }
+
+    @Test
+    void evict_WithinTransaction_ShouldDeleteAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            productDetailsCache.evictAll(List.of(1L, 2L));
+
+            verify(redisTemplate, never()).delete(anyCollection());
+
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(redisTemplate).delete(List.of("product:details:1", "product:details:2"));
+    }
+
+    private ProductDetailsResponse createResponse() {
+        return ProductDetailsResponse.builder()
+                .id(PRODUCT_ID)
+                .name("Phone")
+                .price(1000)
+                .count(5)
+                .categoryIds(Set.of(1L, 2L))
+                .categoryNames(Set.of("phones", "electronics"))
+                .photoUrls(List.of("front.jpg"))
+                .build();
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
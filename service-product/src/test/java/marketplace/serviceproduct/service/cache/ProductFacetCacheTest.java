@@ -0,0 +1,115 @@
+package marketplace.serviceproduct.service.cache;
+
+import com.marketplace.serviceProduct.dto.projection.CategoryRow;
+import com.marketplace.serviceProduct.dto.projection.ProductCategoryLink;
+import com.marketplace.serviceProduct.dto.projection.ProductFacetRow;
+import com.marketplace.serviceProduct.repository.ProductRepository;
+import com.marketplace.serviceProduct.service.cache.CategoryTree;
+import com.marketplace.serviceProduct.service.cache.CategoryTreeCache;
+import com.marketplace.serviceProduct.service.cache.ProductChangeBroadcaster;
+import com.marketplace.serviceProduct.service.cache.ProductFacetCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductFacetCacheTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryTreeCache categoryTreeCache;
+
+    @Mock
+    private ProductChangeBroadcaster productChangeBroadcaster;
+
+    private ProductFacetCache productFacetCache;
+
+    @BeforeEach
+    void setUp() {
+        productFacetCache = new ProductFacetCache(productRepository, categoryTreeCache, productChangeBroadcaster);
+        ReflectionTestUtils.setField(productFacetCache, "priceBounds", new int[]{1000});
+
+        when(categoryTreeCache.get()).thenReturn(CategoryTree.build(List.of(new CategoryRow(1L, "phones", null))));
+        when(productRepository.findAllFacetRows()).thenReturn(List.of(new ProductFacetRow(1L, 500, 3, 4.0)));
+        when(productRepository.findAllCategoryLinks()).thenReturn(List.of(new ProductCategoryLink(1L, 1L)));
+        productFacetCache.run(null);
+    }
+
+    @Test
+    void updateStockAfterCommit_ShouldApplyAndPublishOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            productFacetCache.updateStockAfterCommit(Map.of(1L, 0));
+            assertEquals(1, inStockCount());
+            verifyNoInteractions(productChangeBroadcaster);
+
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(0, inStockCount());
+        verify(productChangeBroadcaster).publish(ProductFacetCache.CHANGES_CHANNEL, List.of(1L));
+    }
+
+    @Test
+    void onRemoteChange_ShouldReloadChangedProducts() {
+        when(productChangeBroadcaster.isRemote("other:1,2")).thenReturn(true);
+        when(productChangeBroadcaster.productIds("other:1,2")).thenReturn(List.of(1L, 2L));
+        when(productRepository.findFacetRowsByIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                new ProductFacetRow(1L, 1500, 0, 4.0),
+                new ProductFacetRow(2L, 700, 4, null)
+        ));
+        when(productRepository.findCategoryLinksByProductIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(new ProductCategoryLink(1L, 1L), new ProductCategoryLink(2L, 1L)));
+
+        productFacetCache.onRemoteChange("other:1,2");
+
+        assertEquals(2, productFacetCache.get().size());
+        assertEquals(1, inStockCount());
+        assertArrayEquals(new int[]{1, 1}, productFacetCache.get()
+                .search(categoryTreeCache.get(), 1L, Set.of(), null, false, 0, 10)
+                .getPriceBucketCounts());
+    }
+
+    @Test
+    void onRemoteChange_WithoutProductIds_ShouldRebuildIndex() {
+        when(productChangeBroadcaster.isRemote("other:")).thenReturn(true);
+        when(productChangeBroadcaster.productIds("other:")).thenReturn(List.of());
+
+        productFacetCache.onRemoteChange("other:");
+        productFacetCache.get();
+
+        verify(productRepository, times(2)).findAllFacetRows();
+    }
+
+    @Test
+    void onRemoteChange_FromThisInstance_ShouldBeIgnored() {
+        when(productChangeBroadcaster.isRemote("self:1")).thenReturn(false);
+
+        productFacetCache.onRemoteChange("self:1");
+
+        verify(productRepository, never()).findFacetRowsByIdIn(anyCollection());
+    }
+
+    private int inStockCount() {
+        return productFacetCache.get()
+                .search(categoryTreeCache.get(), null, Set.of(), null, false, 0, 10)
+                .getInStockCount();
+    }
+
+}
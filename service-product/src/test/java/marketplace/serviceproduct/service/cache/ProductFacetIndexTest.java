@@ -0,0 +1,174 @@
+package marketplace.serviceproduct.service.cache;
+
+import com.marketplace.serviceProduct.dto.projection.CategoryRow;
+import com.marketplace.serviceProduct.dto.projection.ProductCategoryLink;
+import com.marketplace.serviceProduct.dto.projection.ProductFacetRow;
+import com.marketplace.serviceProduct.service.cache.CategoryTree;
+import com.marketplace.serviceProduct.service.cache.ProductFacetIndex;
+import com.marketplace.serviceProduct.service.cache.ProductFacetResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductFacetIndexTest {
+
+    private static final int[] PRICE_BOUNDS = {1000, 5000};
+
+    private final CategoryTree categoryTree = CategoryTree.build(List.of(
+            new CategoryRow(1L, "electronics", null),
+            new CategoryRow(2L, "phones", 1L),
+            new CategoryRow(3L, "laptops", 1L),
+            new CategoryRow(4L, "books", null)
+    ));
+
+    private final ProductFacetIndex index = ProductFacetIndex.build(PRICE_BOUNDS, categoryTree,
+            List.of(
+                    new ProductFacetRow(1L, 500, 3, 4.5),
+                    new ProductFacetRow(2L, 2500, 0, 3.2),
+                    new ProductFacetRow(3L, 7000, 1, null),
+                    new ProductFacetRow(4L, 900, 5, 5.0),
+                    new ProductFacetRow(5L, 1200, 2, 4.0)
+            ),
+            List.of(
+                    new ProductCategoryLink(1L, 2L),
+                    new ProductCategoryLink(2L, 2L),
+                    new ProductCategoryLink(3L, 3L),
+                    new ProductCategoryLink(4L, 4L),
+                    new ProductCategoryLink(5L, 2L),
+                    new ProductCategoryLink(5L, 3L)
+            ));
+
+    @Test
+    void search_WithoutFilters_ShouldCountEveryFacet() {
+        ProductFacetResult result = search(null, Set.of(), null, false);
+
+        assertEquals(5, result.getTotal());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), result.getProductIds());
+        assertEquals(Map.of(1L, 4, 4L, 1), result.getCategoryCounts());
+        assertArrayEquals(new int[]{2, 2, 1}, result.getPriceBucketCounts());
+        assertEquals(3, result.getMinRatingCounts()[4]);
+        assertEquals(1, result.getMinRatingCounts()[5]);
+        assertEquals(4, result.getInStockCount());
+    }
+
+    @Test
+    void search_WithCategory_ShouldIncludeSubtreeAndCountChildren() {
+        ProductFacetResult result = search(1L, Set.of(), null, false);
+
+        assertEquals(List.of(1L, 2L, 3L, 5L), result.getProductIds());
+        assertEquals(Map.of(2L, 3, 3L, 2), result.getCategoryCounts());
+        assertArrayEquals(new int[]{1, 2, 1}, result.getPriceBucketCounts());
+    }
+
+    @Test
+    void search_ShouldCountEachFacetAgainstTheOtherFilters() {
+        ProductFacetResult result = search(1L, Set.of(1), 4, true);
+
+        assertEquals(List.of(5L), result.getProductIds());
+        assertArrayEquals(new int[]{1, 1, 0}, result.getPriceBucketCounts());
+        assertEquals(1, result.getMinRatingCounts()[4]);
+        assertEquals(1, result.getMinRatingCounts()[3]);
+        assertEquals(1, result.getInStockCount());
+        assertEquals(Map.of(2L, 1, 3L, 1), result.getCategoryCounts());
+    }
+
+    @Test
+    void search_ShouldPageByProductId() {
+        ProductFacetResult firstPage = index.search(categoryTree, null, Set.of(), null, false, 0, 2);
+        ProductFacetResult lastPage = index.search(categoryTree, null, Set.of(), null, false, 4, 2);
+
+        assertEquals(List.of(1L, 2L), firstPage.getProductIds());
+        assertTrue(firstPage.isHasNext());
+        assertEquals(List.of(5L), lastPage.getProductIds());
+        assertFalse(lastPage.isHasNext());
+    }
+
+    @Test
+    void updates_ShouldMoveProductsBetweenFacets() {
+        index.updateStock(2L, 4);
+        index.updateStock(1L, 0);
+        index.updateRating(3L, 4.9);
+        index.add(new ProductFacetRow(6L, 100, 1, null), List.of(3L), categoryTree);
+
+        ProductFacetResult result = search(null, Set.of(), null, true);
+
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L), result.getProductIds());
+        assertEquals(4, search(null, Set.of(), 4, false).getTotal());
+        assertEquals(Map.of(2L, 3, 3L, 3), search(1L, Set.of(), null, false).getCategoryCounts());
+    }
+
+    @Test
+    void add_WithIdsBeyondIntRangeAndOutOfOrder_ShouldStillPageByProductId() {
+        long largeId = Integer.MAX_VALUE + 10L;
+        index.add(new ProductFacetRow(largeId, 100, 1, null), List.of(4L), categoryTree);
+        index.add(new ProductFacetRow(largeId - 1, 100, 1, null), List.of(4L), categoryTree);
+        index.updateStock(largeId, 0);
+
+        ProductFacetResult firstPage = index.search(categoryTree, null, Set.of(), null, false, 3, 3);
+        ProductFacetResult lastPage = index.search(categoryTree, null, Set.of(), null, false, largeId - 1, 3);
+
+        assertEquals(List.of(4L, 5L, largeId - 1), firstPage.getProductIds());
+        assertTrue(firstPage.isHasNext());
+        assertEquals(List.of(largeId), lastPage.getProductIds());
+        assertFalse(lastPage.isHasNext());
+        assertEquals(List.of(4L, largeId - 1), search(4L, Set.of(), null, true).getProductIds());
+    }
+
+    @Test
+    void getPriceBucketLabels_ShouldDescribeBoundaries() {
+        assertEquals(List.of("0-999", "1000-4999", "5000+"), index.getPriceBucketLabels());
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "PRODUCT_FACET_BENCHMARK", matches = "true")
+    void search_OnMillionProductCatalog_ShouldIntersectFacetsInMilliseconds() {
+        int productCount = 1_000_000;
+        int rootCount = 10;
+        int leafCount = 1_000;
+
+        List<CategoryRow> categories = new ArrayList<>();
+        for (long root = 1; root <= rootCount; root++) {
+            categories.add(new CategoryRow(root, "root " + root, null));
+        }
+        for (long leaf = rootCount + 1; leaf <= rootCount + leafCount; leaf++) {
+            categories.add(new CategoryRow(leaf, "leaf " + leaf, 1 + leaf % rootCount));
+        }
+        CategoryTree largeTree = CategoryTree.build(categories);
+
+        Random random = new Random(7);
+        List<ProductFacetRow> rows = new ArrayList<>(productCount);
+        List<ProductCategoryLink> links = new ArrayList<>(productCount);
+        for (long id = 1; id <= productCount; id++) {
+            rows.add(new ProductFacetRow(id, random.nextInt(20_000), random.nextInt(5),
+                    random.nextInt(10) == 0 ? null : 1 + random.nextDouble() * 4));
+            links.add(new ProductCategoryLink(id, rootCount + 1 + (long) random.nextInt(leafCount)));
+        }
+
+        ProductFacetIndex largeIndex = ProductFacetIndex.build(new int[]{1000, 5000, 10000}, largeTree, rows, links);
+
+        int queries = 200;
+        for (int i = 0; i < 20; i++) {
+            largeIndex.search(largeTree, null, Set.of(1, 2), 3, true, 0, 20);
+        }
+
+        long searchStart = System.nanoTime();
+        int checksum = 0;
+        for (int i = 0; i < queries; i++) {
+            Long categoryId = i % 2 == 0 ? null : 1L + i % rootCount;
+            checksum += largeIndex.search(largeTree, categoryId, Set.of(i % 4), 1 + i % 5, i % 3 == 0, 0, 20).getTotal();
+        }
+        double millisPerSearch = (System.nanoTime() - searchStart) / 1_000_000.0 / queries;
+
+        assertEquals(productCount, largeIndex.size());
+        assertTrue(checksum > 0);
+        assertTrue(millisPerSearch < 100, "faceted search took " + millisPerSearch + " ms");
+    }
+
+    private ProductFacetResult search(Long categoryId, Set<Integer> priceBuckets, Integer minRating, boolean inStockOnly) {
+        return index.search(categoryTree, categoryId, priceBuckets, minRating, inStockOnly, 0, 20);
+    }
+
+}
@@ -0,0 +1,105 @@
+package marketplace.serviceproduct.service.cache;
+
+import com.marketplace.serviceProduct.dto.projection.ProductSuggestionRow;
+import com.marketplace.serviceProduct.repository.ProductRepository;
+import com.marketplace.serviceProduct.service.cache.ProductChangeBroadcaster;
+import com.marketplace.serviceProduct.service.cache.ProductSuggestionCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSuggestionCacheTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductChangeBroadcaster productChangeBroadcaster;
+
+    private ProductSuggestionCache productSuggestionCache;
+
+    @BeforeEach
+    void setUp() {
+        productSuggestionCache = new ProductSuggestionCache(productRepository, productChangeBroadcaster);
+        ReflectionTestUtils.setField(productSuggestionCache, "maxPending", 2);
+
+        when(productRepository.findAllSuggestionRows()).thenReturn(List.of(
+                new ProductSuggestionRow(1L, "Laptop", 4.0),
+                new ProductSuggestionRow(2L, "Lamp", 3.0)
+        ));
+    }
+
+    @Test
+    void upsertAfterCommit_ShouldApplyRowsOnlyAfterCommit() {
+        productSuggestionCache.run(null);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            productSuggestionCache.upsertAfterCommit(List.of(new ProductSuggestionRow(3L, "Laser", 5.0)));
+            assertEquals(List.of(1L, 2L), ids(productSuggestionCache.suggest("la", 10)));
+
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(3L, 1L, 2L), ids(productSuggestionCache.suggest("la", 10)));
+        verify(productChangeBroadcaster).publish(ProductSuggestionCache.CHANGES_CHANNEL, List.of(3L));
+    }
+
+    @Test
+    void onRemoteChange_ShouldReloadChangedRows() {
+        productSuggestionCache.run(null);
+        when(productChangeBroadcaster.isRemote("other:2")).thenReturn(true);
+        when(productChangeBroadcaster.productIds("other:2")).thenReturn(List.of(2L));
+        when(productRepository.findSuggestionRowsByIdIn(List.of(2L)))
+                .thenReturn(List.of(new ProductSuggestionRow(2L, "Lamp", 4.5)));
+
+        productSuggestionCache.onRemoteChange("other:2");
+
+        assertEquals(List.of(2L, 1L), ids(productSuggestionCache.suggest("la", 10)));
+        verify(productChangeBroadcaster, never()).publish(anyString(), anyCollection());
+    }
+
+    @Test
+    void upsertAfterCommit_WithChangedRating_ShouldShadowIndexedRow() {
+        productSuggestionCache.run(null);
+        productSuggestionCache.upsertAfterCommit(List.of(new ProductSuggestionRow(2L, "Lamp", 4.5)));
+
+        assertEquals(List.of(2L, 1L), ids(productSuggestionCache.suggest("la", 10)));
+        assertEquals(List.of(2L), ids(productSuggestionCache.suggest("la", 1)));
+    }
+
+    @Test
+    void upsertAfterCommit_OverPendingLimit_ShouldMergeIntoIndexWithoutReloading() {
+        productSuggestionCache.run(null);
+
+        productSuggestionCache.upsertAfterCommit(List.of(
+                new ProductSuggestionRow(3L, "Laser", 5.0),
+                new ProductSuggestionRow(4L, "Ladder", 1.0),
+                new ProductSuggestionRow(5L, "Lace", 2.0)
+        ));
+
+        assertEquals(5, productSuggestionCache.size());
+        assertEquals(List.of(3L, 1L, 2L, 5L, 4L), ids(productSuggestionCache.suggest("la", 10)));
+        verify(productRepository, times(1)).findAllSuggestionRows();
+    }
+
+    private List<Long> ids(List<ProductSuggestionRow> rows) {
+        return rows.stream().map(ProductSuggestionRow::id).toList();
+    }
+
+}
@@ -0,0 +1,95 @@
+package marketplace.serviceproduct.service.cache;
+
+import com.marketplace.serviceProduct.dto.projection.ProductSuggestionRow;
+import com.marketplace.serviceProduct.service.cache.ProductSuggestionIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSuggestionIndexTest {
+
+    private final ProductSuggestionIndex index = ProductSuggestionIndex.build(List.of(
+            new ProductSuggestionRow(1L, "Gaming Laptop 15", 4.2),
+            new ProductSuggestionRow(2L, "Laptop Stand", 4.9),
+            new ProductSuggestionRow(3L, "Lamp", null),
+            new ProductSuggestionRow(4L, "Wireless Gaming Mouse", 3.5),
+            new ProductSuggestionRow(5L, "Lavender Soap", 4.9)
+    ));
+
+    @Test
+    void suggest_ShouldReturnPrefixMatchesByRatingDescending() {
+        assertEquals(List.of(2L, 5L, 1L, 3L), ids(index.suggest(List.of("la"), 10, Set.of())));
+        assertEquals(List.of(2L, 1L), ids(index.suggest(List.of("lap"), 10, Set.of())));
+    }
+
+    @Test
+    void suggest_ShouldStopAtLimit() {
+        assertEquals(List.of(2L, 5L), ids(index.suggest(List.of("la"), 2, Set.of())));
+    }
+
+    @Test
+    void suggest_WithSeveralTerms_ShouldRequireEveryTerm() {
+        assertEquals(List.of(1L, 4L), ids(index.suggest(List.of("gaming"), 10, Set.of())));
+        assertEquals(List.of(4L), ids(index.suggest(List.of("gam", "mo"), 10, Set.of())));
+    }
+
+    @Test
+    void suggest_ShouldSkipExcludedIds() {
+        assertEquals(List.of(5L, 1L, 3L), ids(index.suggest(List.of("la"), 10, Set.of(2L))));
+    }
+
+    @Test
+    void withRows_ShouldReplaceAndAddProducts() {
+        ProductSuggestionIndex updated = index.withRows(Map.of(
+                3L, new ProductSuggestionRow(3L, "Lamp", 5.0),
+                6L, new ProductSuggestionRow(6L, "Laser Pointer", 1.0)
+        ));
+
+        assertEquals(6, updated.size());
+        assertEquals(List.of(3L, 2L, 5L, 1L, 6L), ids(updated.suggest(List.of("la"), 10, Set.of())));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "PRODUCT_SUGGESTION_BENCHMARK", matches = "true")
+    void build_OnLargeCatalog_ShouldKeepCompactFootprint() {
+        String[] words = {"laptop", "phone", "charger", "cable", "gaming", "wireless", "mouse", "keyboard",
+                "monitor", "headphones", "speaker", "camera", "tablet", "watch", "case", "stand"};
+        int productCount = 200_000;
+        long before = usedHeap();
+        List<ProductSuggestionRow> rows = new ArrayList<>(productCount);
+        for (int i = 0; i < productCount; i++) {
+            String name = words[i % words.length] + " " + words[(i / words.length) % words.length] + " " + i;
+            rows.add(new ProductSuggestionRow((long) i, name, (i % 50) / 10.0));
+        }
+
+        ProductSuggestionIndex largeIndex = ProductSuggestionIndex.build(rows);
+        rows = null;
+        long after = usedHeap();
+
+        long bytesPerProduct = Math.max(0, after - before) / productCount;
+
+        assertEquals(productCount, largeIndex.size());
+        assertEquals(10, largeIndex.suggest(List.of("lap"), 10, Set.of()).size());
+        assertTrue(bytesPerProduct < 512, "index takes " + bytesPerProduct + " bytes per product");
+    }
+
+    private List<Long> ids(List<ProductSuggestionRow> rows) {
+        return rows.stream().map(ProductSuggestionRow::id).toList();
+    }
+
+    private long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+}
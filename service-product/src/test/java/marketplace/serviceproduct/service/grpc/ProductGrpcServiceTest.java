@@ -1,17 +1,26 @@
 package marketplace.serviceproduct.service.grpc;
 
 import com.marketplace.grpc.Product;
-import com.marketplace.serviceProduct.exception.ProductException;
+import com.marketplace.serviceProduct.dto.projection.ProductStock;
+import com.marketplace.serviceProduct.dto.stock.StockReservationResult;
 import com.marketplace.serviceProduct.service.ProductService;
+import com.marketplace.serviceProduct.service.StockReservationService;
 import com.marketplace.serviceProduct.service.grpc.ProductGrpcService;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -20,14 +29,26 @@ class ProductGrpcServiceTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private StockReservationService stockReservationService;
+
     @Mock
     private StreamObserver<Product.ValidateProductResponse> responseObserver;
 
+    @Mock
+    private StreamObserver<Product.BasketValidationResponse> basketResponseObserver;
+
+    @Mock
+    private StreamObserver<Product.CancelBasketReservationResult> cancelResponseObserver;
+
+    @Mock
+    private ServerCallStreamObserver<Product.ProductValidationResult> streamResponseObserver;
+
     private ProductGrpcService productGrpcService;
 
     @BeforeEach
     void setUp() {
-        productGrpcService = new ProductGrpcService(productService);
+        productGrpcService = new ProductGrpcService(productService, stockReservationService);
     }
 
     @Test
@@ -37,9 +58,11 @@ class ProductGrpcServiceTest {
                 .setProductId(productId)
                 .build();
 
+        when(productService.productExists(productId)).thenReturn(true);
+
         productGrpcService.validateProduct(request, responseObserver);
 
-        verify(productService).findProductById(productId);
+        verify(productService).productExists(productId);
         verify(responseObserver).onNext(argThat(response ->
                 response.getProductExist() == true
         ));
@@ -54,12 +77,11 @@ class ProductGrpcServiceTest {
                 .setProductId(productId)
                 .build();
 
-        doThrow(new ProductException("Product not found"))
-                .when(productService).findProductById(productId);
+        when(productService.productExists(productId)).thenReturn(false);
 
         productGrpcService.validateProduct(request, responseObserver);
 
-        verify(productService).findProductById(productId);
+        verify(productService).productExists(productId);
         verify(responseObserver).onNext(argThat(response ->
                 response.getProductExist() == false
         ));
@@ -81,4 +103,198 @@ class ProductGrpcServiceTest {
         inOrder.verify(responseObserver).onCompleted();
     }
 
+    @Test
+    void validateBasketProducts_WithSufficientStock_ShouldReturnReservedResult() {
+        Product.BasketValidationRequest request = Product.BasketValidationRequest.newBuilder()
+                .addItems(Product.BasketItemRequest.newBuilder().setProductId(1L).setCount(8))
+                .build();
+
+        when(stockReservationService.reserveAll(Map.of(1L, 8)))
+                .thenReturn(Map.of(1L, new StockReservationResult(1L, true, 500, 8, 2, true)));
+
+        productGrpcService.validateBasketProducts(request, basketResponseObserver);
+
+        verify(basketResponseObserver).onNext(argThat(response -> {
+            Product.ProductValidationResult result = response.getResults(0);
+            return result.getProductExists()
+                    && result.getIsCountSufficient()
+                    && result.getAvailableCount() == 2
+                    && result.getCurrentPrice() == 500;
+        }));
+        verify(basketResponseObserver).onCompleted();
+    }
+
+    @Test
+    void validateBasketProducts_WithInsufficientStock_ShouldReturnNotSufficientResult() {
+        Product.BasketValidationRequest request = Product.BasketValidationRequest.newBuilder()
+                .addItems(Product.BasketItemRequest.newBuilder().setProductId(1L).setCount(20))
+                .build();
+
+        when(stockReservationService.reserveAll(Map.of(1L, 20)))
+                .thenReturn(Map.of(1L, new StockReservationResult(1L, true, 500, 20, 10, false)));
+
+        productGrpcService.validateBasketProducts(request, basketResponseObserver);
+
+        verify(basketResponseObserver).onNext(argThat(response -> {
+            Product.ProductValidationResult result = response.getResults(0);
+            return result.getProductExists()
+                    && !result.getIsCountSufficient()
+                    && result.getAvailableCount() == 10;
+        }));
+    }
+
+    @Test
+    void validateBasketProducts_WithReservationError_ShouldFailCall() {
+        Product.BasketValidationRequest request = Product.BasketValidationRequest.newBuilder()
+                .addItems(Product.BasketItemRequest.newBuilder().setProductId(1L).setCount(1))
+                .build();
+
+        when(stockReservationService.reserveAll(Map.of(1L, 1))).thenThrow(new RuntimeException("Database error"));
+
+        productGrpcService.validateBasketProducts(request, basketResponseObserver);
+
+        verify(basketResponseObserver).onError(argThat(error ->
+                Status.fromThrowable(error).getCode() == Status.Code.INTERNAL));
+        verify(basketResponseObserver, never()).onNext(any());
+        verify(basketResponseObserver, never()).onCompleted();
+    }
+
+    @Test
+    void validateBasketProducts_WithDuplicateLines_ShouldReserveSummedCountInOneCall() {
+        Product.BasketValidationRequest request = Product.BasketValidationRequest.newBuilder()
+                .addItems(Product.BasketItemRequest.newBuilder().setProductId(1L).setCount(2))
+                .addItems(Product.BasketItemRequest.newBuilder().setProductId(2L).setCount(1))
+                .addItems(Product.BasketItemRequest.newBuilder().setProductId(1L).setCount(3))
+                .build();
+
+        Map<Long, StockReservationResult> reservations = new LinkedHashMap<>();
+        reservations.put(1L, new StockReservationResult(1L, true, 500, 5, 5, true));
+        reservations.put(2L, new StockReservationResult(2L, true, 300, 1, 0, true));
+        when(stockReservationService.reserveAll(anyMap())).thenReturn(reservations);
+
+        productGrpcService.validateBasketProducts(request, basketResponseObserver);
+
+        verify(stockReservationService).reserveAll(Map.of(1L, 5, 2L, 1));
+        verify(basketResponseObserver).onNext(argThat(response -> response.getResultsCount() == 2));
+    }
+
+    @Test
+    void checkBasketProducts_ShouldReportStockWithoutReserving() {
+        Product.BasketValidationRequest request = Product.BasketValidationRequest.newBuilder()
+                .addItems(Product.BasketItemRequest.newBuilder().setProductId(1L).setCount(3))
+                .addItems(Product.BasketItemRequest.newBuilder().setProductId(2L).setCount(1))
+                .build();
+
+        ProductStock stock = mock(ProductStock.class);
+        when(stock.getPrice()).thenReturn(500);
+        when(stock.getCount()).thenReturn(2);
+        when(productService.findStocks(Set.of(1L, 2L))).thenReturn(Map.of(1L, stock));
+
+        productGrpcService.checkBasketProducts(request, basketResponseObserver);
+
+        verify(basketResponseObserver).onNext(argThat(response -> {
+            Product.ProductValidationResult found = response.getResults(0);
+            Product.ProductValidationResult notFound = response.getResults(1);
+            return found.getProductExists()
+                    && !found.getIsCountSufficient()
+                    && found.getAvailableCount() == 2
+                    && found.getCurrentPrice() == 500
+                    && notFound.getProductId() == 2L
+                    && !notFound.getProductExists();
+        }));
+        verify(basketResponseObserver).onCompleted();
+        verifyNoInteractions(stockReservationService);
+    }
+
+    @Test
+    void streamBasketProducts_ShouldRequestNextItemOnlyWhenResponseStreamIsReady() {
+        when(stockReservationService.reserve(1L, 3))
+                .thenReturn(new StockReservationResult(1L, true, 500, 3, 7, true));
+        when(stockReservationService.reserve(2L, 1))
+                .thenReturn(new StockReservationResult(2L, false, 0, 1, 0, false));
+        when(streamResponseObserver.isReady()).thenReturn(true, true, false);
+
+        StreamObserver<Product.BasketItemRequest> requestObserver =
+                productGrpcService.streamBasketProducts(streamResponseObserver);
+
+        ArgumentCaptor<Runnable> onReadyHandler = ArgumentCaptor.forClass(Runnable.class);
+        verify(streamResponseObserver).disableAutoRequest();
+        verify(streamResponseObserver).setOnReadyHandler(onReadyHandler.capture());
+
+        onReadyHandler.getValue().run();
+        requestObserver.onNext(Product.BasketItemRequest.newBuilder().setProductId(1L).setCount(3).build());
+        requestObserver.onNext(Product.BasketItemRequest.newBuilder().setProductId(2L).setCount(1).build());
+        requestObserver.onCompleted();
+
+        verify(streamResponseObserver, times(2)).request(1);
+        verify(streamResponseObserver).onNext(argThat(result ->
+                result.getProductId() == 1L && result.getIsCountSufficient() && result.getAvailableCount() == 7
+        ));
+        verify(streamResponseObserver).onNext(argThat(result ->
+                result.getProductId() == 2L && !result.getProductExists()
+        ));
+        verify(streamResponseObserver).onCompleted();
+    }
+
+    @Test
+    void streamBasketProducts_WhenCancelled_ShouldReleaseReservedStock() {
+        when(stockReservationService.reserve(1L, 3))
+                .thenReturn(new StockReservationResult(1L, true, 500, 3, 7, true));
+        when(stockReservationService.reserve(2L, 1))
+                .thenReturn(new StockReservationResult(2L, true, 300, 1, 0, false));
+
+        StreamObserver<Product.BasketItemRequest> requestObserver =
+                productGrpcService.streamBasketProducts(streamResponseObserver);
+
+        ArgumentCaptor<Runnable> onCancelHandler = ArgumentCaptor.forClass(Runnable.class);
+        verify(streamResponseObserver).setOnCancelHandler(onCancelHandler.capture());
+
+        requestObserver.onNext(Product.BasketItemRequest.newBuilder().setProductId(1L).setCount(3).build());
+        requestObserver.onNext(Product.BasketItemRequest.newBuilder().setProductId(2L).setCount(1).build());
+        onCancelHandler.getValue().run();
+        requestObserver.onError(Status.CANCELLED.asRuntimeException());
+
+        verify(stockReservationService, times(1)).release(1L, 3);
+        verify(stockReservationService, never()).release(eq(2L), anyInt());
+    }
+
+    @Test
+    void streamBasketProducts_WithReservationError_ShouldFailStreamAndReleaseReservedStock() {
+        when(stockReservationService.reserve(1L, 3))
+                .thenReturn(new StockReservationResult(1L, true, 500, 3, 7, true));
+        when(stockReservationService.reserve(2L, 1)).thenThrow(new RuntimeException("Database error"));
+
+        StreamObserver<Product.BasketItemRequest> requestObserver =
+                productGrpcService.streamBasketProducts(streamResponseObserver);
+
+        requestObserver.onNext(Product.BasketItemRequest.newBuilder().setProductId(1L).setCount(3).build());
+        requestObserver.onNext(Product.BasketItemRequest.newBuilder().setProductId(2L).setCount(1).build());
+
+        verify(stockReservationService).release(1L, 3);
+        verify(streamResponseObserver).onError(argThat(error ->
+                Status.fromThrowable(error).getCode() == Status.Code.INTERNAL
+        ));
+        verify(streamResponseObserver, never()).onCompleted();
+    }
+
+    @Test
+    void cancelBasketReservation_ShouldReleaseStockForEveryProduct() {
+        Product.CancelBasketReservationRequest request = Product.CancelBasketReservationRequest.newBuilder()
+                .addProducts(Product.CancelProductReservationRequest.newBuilder().setProductId(1L).setCount(3))
+                .addProducts(Product.CancelProductReservationRequest.newBuilder().setProductId(2L).setCount(5))
+                .build();
+
+        when(stockReservationService.release(1L, 3)).thenReturn(true);
+        when(stockReservationService.release(2L, 5)).thenReturn(false);
+
+        productGrpcService.cancelBasketReservation(request, cancelResponseObserver);
+
+        verify(stockReservationService).release(1L, 3);
+        verify(stockReservationService).release(2L, 5);
+        verify(cancelResponseObserver).onNext(argThat(response ->
+                response.getResultsCount() == 1 && response.getResults(0).getProductId() == 1L
+        ));
+        verify(cancelResponseObserver).onCompleted();
+    }
+
 }
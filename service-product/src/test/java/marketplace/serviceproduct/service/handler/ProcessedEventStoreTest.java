@@ -0,0 +1,72 @@
+package marketplace.serviceproduct.service.handler;
+
+import com.marketplace.serviceProduct.repository.ProcessedEventRepository;
+import com.marketplace.serviceProduct.service.handler.ProcessedEventStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessedEventStoreTest {
+
+    @Mock
+    private ProcessedEventRepository processedEventRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ProcessedEventStore processedEventStore;
+
+    @BeforeEach
+    void setUp() {
+        processedEventStore = new ProcessedEventStore(processedEventRepository, jdbcTemplate);
+        ReflectionTestUtils.setField(processedEventStore, "windowSize", 2);
+        ReflectionTestUtils.setField(processedEventStore, "retentionDays", 7L);
+        ReflectionTestUtils.setField(processedEventStore, "purgeEvery", 1000L);
+    }
+
+    @Test
+    void claim_ShouldReturnOnlyUnprocessedIdsAndRecordThem() {
+        when(processedEventRepository.findExistingIds(Set.of("a", "b"))).thenReturn(List.of("b"));
+
+        assertEquals(Set.of("a"), processedEventStore.claim(List.of("a", "b", "a")));
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> args) -> args.size() == 1));
+    }
+
+    @Test
+    void claim_WithRecentIds_ShouldAnswerFromMemoryWindow() {
+        when(processedEventRepository.findExistingIds(anyCollection())).thenReturn(List.of());
+        processedEventStore.claim(List.of("a", "b"));
+
+        assertTrue(processedEventStore.claim(List.of("a", "b")).isEmpty());
+        verify(processedEventRepository, times(1)).findExistingIds(anyCollection());
+    }
+
+    @Test
+    void claim_InTransaction_ShouldRememberIdsOnlyAfterCommit() {
+        when(processedEventRepository.findExistingIds(anyCollection())).thenReturn(List.of());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            processedEventStore.claim(List.of("a"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        processedEventStore.claim(List.of("a"));
+        verify(processedEventRepository, times(2)).findExistingIds(anyCollection());
+    }
+
+}